@@ -0,0 +1,15 @@
+package edu.brajovic.products.audit;
+
+import edu.brajovic.products.models.OrderView;
+
+/**
+ * One audited change: the order as it was before and, for updates, after.
+ * {@code eventId} is unique so a replayed write-ahead log never duplicates
+ * rows.
+ */
+public record OrderAuditEvent(String eventId, String action, int orderId, String username, long changedAt,
+                              OrderView before, OrderView after) {
+
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+}
@@ -0,0 +1,271 @@
+package edu.brajovic.products.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import edu.brajovic.products.models.OrderAuditView;
+import edu.brajovic.products.models.OrderView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only history of order edits and deletes in ORDER_AUDIT, written off
+ * the request path.
+ *
+ * {@link #record} appends the event to the local write-ahead log and puts it
+ * in a bounded ring buffer; the scheduled flusher writes the buffer to the
+ * table in batches. Loss on crash: an event is durable once record()
+ * returns, against a process crash always and against a power or OS crash
+ * when audit.wal-fsync=true. Outstanding events are replayed from the log at
+ * the next start. The one window left is between the ORDERS write and the
+ * log append on the same thread.
+ *
+ * When the buffer is full the recording thread flushes it itself, so a slow
+ * database slows edits down instead of dropping history. If the database is
+ * down the event stays queued for the flusher and the edit still succeeds.
+ */
+@Service
+public class OrderAuditTrail {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAuditTrail.class);
+
+    private static final String INSERT_SQL = "INSERT INTO ORDER_AUDIT (EVENT_ID, ORDER_ID, ACTION, USERNAME, CHANGED_AT, "
+            + "OLD_ORDER_NUMBER, OLD_PRODUCT_NAME, OLD_PRICE, OLD_QTY, NEW_ORDER_NUMBER, NEW_PRODUCT_NAME, NEW_PRICE, NEW_QTY) "
+            + "VALUES (:eventId, :orderId, :action, :username, :changedAt, :oldOrderNumber, :oldProductName, :oldPrice, "
+            + ":oldQty, :newOrderNumber, :newProductName, :newPrice, :newQty)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean enabled;
+    private final Path walFile;
+    private final boolean walFsync;
+    private final int batchSize;
+    private final ArrayBlockingQueue<OrderAuditEvent> buffer;
+    // Drained from the buffer but not yet written, e.g. while the database was down.
+    private final List<OrderAuditEvent> unwritten = new ArrayList<>();
+    private OrderAuditWal wal;
+
+    public OrderAuditTrail(NamedParameterJdbcTemplate jdbc,
+                           @Value("${audit.enabled:true}") boolean enabled,
+                           @Value("${audit.wal-file:data/order-audit-${server.port:8080}.wal}") String walFile,
+                           @Value("${audit.wal-fsync:false}") boolean walFsync,
+                           @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+                           @Value("${audit.batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.walFile = Path.of(walFile);
+        this.walFsync = walFsync;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        wal = new OrderAuditWal(walFile, walFsync);
+        List<OrderAuditEvent> outstanding = wal.readAll();
+        if (outstanding.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < outstanding.size(); from += batchSize) {
+            List<OrderAuditEvent> batch = outstanding.subList(from, Math.min(from + batchSize, outstanding.size()));
+            insertMissing(batch);
+            wal.committed(batch.size());
+        }
+        log.info("Replayed {} audit events from {}", outstanding.size(), walFile);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordUpdate(OrderView before, OrderView after) {
+        record(OrderAuditEvent.UPDATE, before.id(), currentUser(), before, after);
+    }
+
+    public void recordDelete(OrderView before) {
+        record(OrderAuditEvent.DELETE, before.id(), currentUser(), before, null);
+    }
+
+    /**
+     * A delete by a bulk purge job, recorded under the job rather than the
+     * purger thread so the history points at the filter that removed it.
+     */
+    public void recordPurge(OrderView before, int jobId) {
+        record(OrderAuditEvent.DELETE, before.id(), "purge-job-" + jobId, before, null);
+    }
+
+    private void record(String action, int orderId, String username, OrderView before, OrderView after) {
+        if (!enabled) {
+            return;
+        }
+        OrderAuditEvent event = new OrderAuditEvent(UUID.randomUUID().toString(), action, orderId,
+                username, System.currentTimeMillis(), before, after);
+        try {
+            wal.append(event);
+        } catch (IOException ex) {
+            // Without the log there is no durability guarantee; fall back to a synchronous insert.
+            log.error("Audit WAL append failed, writing event {} synchronously", event.eventId(), ex);
+            insert(List.of(event));
+            return;
+        }
+        if (!buffer.offer(event)) {
+            flush();
+            if (!buffer.offer(event)) {
+                writeNow(event);
+            }
+        }
+    }
+
+    // The event is already in the log, so a failed write must leave it queued
+    // for the flusher rather than fail the edit it belongs to.
+    private synchronized void writeNow(OrderAuditEvent event) {
+        try {
+            writeAndCommit(List.of(event));
+        } catch (RuntimeException ex) {
+            unwritten.add(event);
+            log.warn("Audit write failed, event {} kept for the next flush", event.eventId(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.flush-ms:1000}")
+    public synchronized int flush() {
+        if (!enabled) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            while (!unwritten.isEmpty()) {
+                // A failed batch may have been written in part; skip what is already stored.
+                List<OrderAuditEvent> retry = unwritten.subList(0, Math.min(batchSize, unwritten.size()));
+                insertMissing(retry);
+                committed(retry.size());
+                total += retry.size();
+                retry.clear();
+            }
+            List<OrderAuditEvent> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                unwritten.addAll(batch);
+                writeAndCommit(batch);
+                unwritten.clear();
+                total += batch.size();
+                batch.clear();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Audit flush failed, {} events kept for the next attempt", unwritten.size(), ex);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (wal == null) {
+            return;
+        }
+        flush();
+        wal.close();
+    }
+
+    /**
+     * One page of an order's history, newest first.
+     */
+    public List<OrderAuditView> history(int orderId, int page, int pageSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource("orderId", orderId)
+                .addValue("limit", pageSize)
+                .addValue("offset", page * pageSize);
+        return jdbc.query("SELECT ID, ORDER_ID, ACTION, USERNAME, CHANGED_AT, OLD_ORDER_NUMBER, OLD_PRODUCT_NAME, "
+                + "OLD_PRICE, OLD_QTY, NEW_ORDER_NUMBER, NEW_PRODUCT_NAME, NEW_PRICE, NEW_QTY FROM ORDER_AUDIT "
+                + "WHERE ORDER_ID = :orderId ORDER BY ID DESC LIMIT :limit OFFSET :offset",
+                params, new OrderAuditView.Row());
+    }
+
+    public int countHistory(int orderId) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM ORDER_AUDIT WHERE ORDER_ID = :orderId",
+                new MapSqlParameterSource("orderId", orderId), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private void writeAndCommit(List<OrderAuditEvent> events) {
+        insert(events);
+        committed(events.size());
+    }
+
+    private void committed(int count) {
+        try {
+            wal.committed(count);
+        } catch (IOException ex) {
+            // Rows are in the table; a later replay skips them by event id.
+            log.warn("Could not truncate audit WAL {}", walFile, ex);
+        }
+    }
+
+    private void insert(List<OrderAuditEvent> events) {
+        SqlParameterSource[] batch = new SqlParameterSource[events.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = params(events.get(i));
+        }
+        jdbc.batchUpdate(INSERT_SQL, batch);
+    }
+
+    private void insertMissing(List<OrderAuditEvent> events) {
+        List<String> ids = new ArrayList<>(events.size());
+        for (OrderAuditEvent e : events) {
+            ids.add(e.eventId());
+        }
+        Set<String> existing = new HashSet<>(jdbc.queryForList(
+                "SELECT EVENT_ID FROM ORDER_AUDIT WHERE EVENT_ID IN (:ids)",
+                new MapSqlParameterSource("ids", ids), String.class));
+        List<OrderAuditEvent> missing = new ArrayList<>(events.size());
+        for (OrderAuditEvent e : events) {
+            if (!existing.contains(e.eventId())) {
+                missing.add(e);
+            }
+        }
+        if (!missing.isEmpty()) {
+            insert(missing);
+        }
+    }
+
+    private static MapSqlParameterSource params(OrderAuditEvent e) {
+        OrderView before = e.before();
+        OrderView after = e.after();
+        return new MapSqlParameterSource()
+                .addValue("eventId", e.eventId())
+                .addValue("orderId", e.orderId())
+                .addValue("action", e.action())
+                .addValue("username", e.username())
+                .addValue("changedAt", new Timestamp(e.changedAt()))
+                .addValue("oldOrderNumber", before == null ? null : before.order_number())
+                .addValue("oldProductName", before == null ? null : before.product_name())
+                .addValue("oldPrice", before == null ? null : before.price())
+                .addValue("oldQty", before == null ? null : before.quantity())
+                .addValue("newOrderNumber", after == null ? null : after.order_number())
+                .addValue("newProductName", after == null ? null : after.product_name())
+                .addValue("newPrice", after == null ? null : after.price())
+                .addValue("newQty", after == null ? null : after.quantity());
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "system" : authentication.getName();
+    }
+}
@@ -0,0 +1,170 @@
+package edu.brajovic.products.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.brajovic.products.models.OrderView;
+
+/**
+ * Local append-only file holding every audit event that is not yet in the
+ * database. Each record is framed as [length int][payload][crc32 long], so a
+ * record torn by a crash mid-write is detected and ignored on replay.
+ *
+ * The file is emptied whenever every appended event has been committed.
+ * With fsync on, each append is forced to disk before the request returns.
+ */
+public class OrderAuditWal implements Closeable {
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final boolean fsync;
+    private int pending;
+
+    public OrderAuditWal(Path file, boolean fsync) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            channel.close();
+            throw new IllegalStateException("Audit WAL " + file + " is already open in this JVM; "
+                    + "give each instance its own audit.wal-file", ex);
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Audit WAL " + file + " is locked by another process; "
+                    + "give each instance its own audit.wal-file");
+        }
+        this.fsync = fsync;
+        channel.position(channel.size());
+    }
+
+    public synchronized void append(OrderAuditEvent event) throws IOException {
+        byte[] payload = encode(event);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + payload.length + Long.BYTES);
+        frame.putInt(payload.length).put(payload).putLong(crc.getValue()).flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        pending++;
+    }
+
+    /**
+     * Records that {@code count} appended events are now in the database and
+     * empties the file once nothing appended is outstanding.
+     */
+    public synchronized void committed(int count) throws IOException {
+        pending = Math.max(0, pending - count);
+        if (pending == 0 && channel.size() > 0) {
+            channel.truncate(0);
+            channel.position(0);
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Every intact record in the file, oldest first. Stops at the first torn
+     * or corrupt record and treats the events read as outstanding.
+     */
+    public synchronized List<OrderAuditEvent> readAll() throws IOException {
+        List<OrderAuditEvent> events = new ArrayList<>();
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        while (position + Integer.BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.flip().getInt();
+            if (length <= 0 || position + Integer.BYTES + length + Long.BYTES > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length + Long.BYTES);
+            channel.read(body, position + Integer.BYTES);
+            body.flip();
+            byte[] payload = new byte[length];
+            body.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != body.getLong()) {
+                break;
+            }
+            events.add(decode(payload));
+            position += Integer.BYTES + length + Long.BYTES;
+        }
+        pending = events.size();
+        // Drop any torn tail so new appends follow the last intact record.
+        channel.truncate(position);
+        channel.position(position);
+        return events;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        lock.release();
+        channel.close();
+    }
+
+    private static byte[] encode(OrderAuditEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(event.eventId());
+            out.writeUTF(event.action());
+            out.writeInt(event.orderId());
+            out.writeUTF(event.username());
+            out.writeLong(event.changedAt());
+            writeView(out, event.before());
+            writeView(out, event.after());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OrderAuditEvent decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return new OrderAuditEvent(in.readUTF(), in.readUTF(), in.readInt(), in.readUTF(), in.readLong(),
+                    readView(in), readView(in));
+        }
+    }
+
+    private static void writeView(DataOutputStream out, OrderView view) throws IOException {
+        out.writeBoolean(view != null);
+        if (view != null) {
+            out.writeInt(view.id());
+            out.writeUTF(view.order_number());
+            out.writeUTF(view.product_name());
+            out.writeDouble(view.price());
+            out.writeInt(view.quantity());
+        }
+    }
+
+    private static OrderView readView(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return new OrderView(in.readInt(), in.readUTF(), in.readUTF(), in.readDouble(), in.readInt());
+    }
+}
@@ -0,0 +1,79 @@
+package edu.brajovic.products.controller;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Single-use Iterable handed to a Thymeleaf th:each. Rows are pulled lazily
+ * from the underlying stream and the response is flushed every chunkSize
+ * rows, so the page leaves the server while it is still rendering.
+ * The stream is closed once the last row has been read.
+ */
+public class ChunkedFlushIterable<T> implements Iterable<T>, AutoCloseable {
+
+    private final Stream<T> rows;
+    private final Flushable output;
+    private final int chunkSize;
+    private boolean consumed;
+
+    public ChunkedFlushIterable(Stream<T> rows, Flushable output, int chunkSize) {
+        this.rows = rows;
+        this.output = output;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (consumed) {
+            throw new IllegalStateException("Rows can only be iterated once");
+        }
+        consumed = true;
+
+        Iterator<T> source = rows.iterator();
+        return new Iterator<T>() {
+            private int sinceFlush;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (exhausted) {
+                    return false;
+                }
+                if (!source.hasNext()) {
+                    exhausted = true;
+                    close();
+                }
+                return !exhausted;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (++sinceFlush > chunkSize) {
+                    flush();
+                    sinceFlush = 1;
+                }
+                return source.next();
+            }
+        };
+    }
+
+    private void flush() {
+        try {
+            output.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        rows.close();
+    }
+}
@@ -0,0 +1,93 @@
+package edu.brajovic.products.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+import edu.brajovic.products.monitoring.JfrRecordingService;
+import edu.brajovic.products.monitoring.RequestLatencyMonitor;
+
+/**
+ * JFR recordings, class histogram and thread dump for admins. Covered by
+ * the /admin/** rule in SecurityConfig.
+ */
+@Controller
+@RequestMapping("/admin/diagnostics")
+public class DiagnosticsController {
+
+    private final JfrRecordingService jfr;
+    private final RequestLatencyMonitor latencyMonitor;
+
+    public DiagnosticsController(JfrRecordingService jfr, RequestLatencyMonitor latencyMonitor) {
+        this.jfr = jfr;
+        this.latencyMonitor = latencyMonitor;
+    }
+
+    @GetMapping
+    public String diagnostics(Model model) {
+        model.addAttribute("title", "Diagnostics");
+        model.addAttribute("recordings", jfr.recordings());
+        model.addAttribute("profiles", JfrRecordingService.PROFILES);
+        model.addAttribute("p99", latencyMonitor.p99Millis());
+        return "diagnostics";
+    }
+
+    @PostMapping("/start")
+    public String start(@RequestParam(defaultValue = "profile") String profile,
+                        @RequestParam(defaultValue = "60") long durationSeconds,
+                        Model model) throws IOException {
+        try {
+            jfr.start(profile, Duration.ofSeconds(durationSeconds), "manual");
+        } catch (IllegalArgumentException ex) {
+            model.addAttribute("error", ex.getMessage());
+            return diagnostics(model);
+        }
+        return "redirect:/admin/diagnostics";
+    }
+
+    @PostMapping("/stop")
+    public String stop(@RequestParam long id) {
+        jfr.stop(id);
+        return "redirect:/admin/diagnostics";
+    }
+
+    @GetMapping("/recordings/{id}")
+    public ResponseEntity<InputStreamResource> download(@PathVariable long id) throws IOException {
+        JfrRecordingService.Export export = jfr.export(id);
+        if (export == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // A snapshot of a running recording is deleted once it has been sent.
+        InputStreamResource body = export.temporary()
+                ? new InputStreamResource(Files.newInputStream(export.path(), StandardOpenOption.DELETE_ON_CLOSE))
+                : new InputStreamResource(Files.newInputStream(export.path()));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(export.fileName()).build().toString())
+                .contentLength(Files.size(export.path()))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    @GetMapping(value = "/histogram", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String classHistogram() {
+        return jfr.classHistogram();
+    }
+
+    @GetMapping(value = "/threads", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public String threadDump() {
+        return jfr.threadDump();
+    }
+}
@@ -0,0 +1,38 @@
+package edu.brajovic.products.controller;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+import edu.brajovic.products.audit.OrderAuditTrail;
+
+@Controller
+@RequestMapping("/admin/audit")
+public class OrderAuditController {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final OrderAuditTrail orderAuditTrail;
+
+    public OrderAuditController(OrderAuditTrail orderAuditTrail) {
+        this.orderAuditTrail = orderAuditTrail;
+    }
+
+    @GetMapping
+    public String orderHistory(@RequestParam(required = false) Integer orderId,
+                               @RequestParam(defaultValue = "0") int page,
+                               Model model) {
+        model.addAttribute("title", "Order Audit");
+        model.addAttribute("orderId", orderId);
+        if (orderId != null) {
+            int total = orderAuditTrail.countHistory(orderId);
+            int pages = Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+            page = Math.min(Math.max(page, 0), pages - 1);
+            model.addAttribute("events", orderAuditTrail.history(orderId, page, PAGE_SIZE));
+            model.addAttribute("page", page);
+            model.addAttribute("pages", pages);
+            model.addAttribute("total", total);
+        }
+        return "orderAudit";
+    }
+}
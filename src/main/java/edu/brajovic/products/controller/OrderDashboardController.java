@@ -0,0 +1,52 @@
+package edu.brajovic.products.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import edu.brajovic.products.data.OrderSnapshot;
+
+/**
+ * JSON filters and aggregates for dashboards, answered from the in-memory
+ * order snapshot rather than the database.
+ */
+@RestController
+@RequestMapping("/orders/dashboard")
+@ConditionalOnProperty(name = "orders.snapshot.enabled", havingValue = "true")
+public class OrderDashboardController {
+
+    private final OrderSnapshot orderSnapshot;
+
+    public OrderDashboardController(OrderSnapshot orderSnapshot) {
+        this.orderSnapshot = orderSnapshot;
+    }
+
+    // e.g. /orders/dashboard?minPrice=10&maxPrice=50&minQuantity=5&product=Widget&product=Gadget
+    @GetMapping
+    public OrderSnapshot.Stats aggregate(@RequestParam(required = false) Double minPrice,
+                                         @RequestParam(required = false) Double maxPrice,
+                                         @RequestParam(required = false) Integer minQuantity,
+                                         @RequestParam(required = false) Integer maxQuantity,
+                                         @RequestParam(required = false) List<String> product) {
+        return orderSnapshot.aggregate(filter(minPrice, maxPrice, minQuantity, maxQuantity, product));
+    }
+
+    @GetMapping("/byProduct")
+    public Map<String, OrderSnapshot.Stats> byProduct(@RequestParam(required = false) Double minPrice,
+                                                      @RequestParam(required = false) Double maxPrice,
+                                                      @RequestParam(required = false) Integer minQuantity,
+                                                      @RequestParam(required = false) Integer maxQuantity,
+                                                      @RequestParam(required = false) List<String> product) {
+        return orderSnapshot.aggregateByProduct(filter(minPrice, maxPrice, minQuantity, maxQuantity, product));
+    }
+
+    private static OrderSnapshot.Filter filter(Double minPrice, Double maxPrice,
+                                               Integer minQuantity, Integer maxQuantity, List<String> product) {
+        return OrderSnapshot.filter()
+                .priceBetween(minPrice, maxPrice)
+                .quantityBetween(minQuantity, maxQuantity)
+                .products(product);
+    }
+}
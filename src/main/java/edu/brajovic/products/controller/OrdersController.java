@@ -1,12 +1,22 @@
 package edu.brajovic.products.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+
+import edu.brajovic.products.data.OrderPurgeService;
 import edu.brajovic.products.data.OrdersDataService;
 import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.models.OrderPurgeJobModel;
+import edu.brajovic.products.models.OrderView;
 
 @Controller
 public class OrdersController {
@@ -14,11 +24,36 @@ public class OrdersController {
     @Autowired
     private OrdersDataService ordersDataService;
 
+    @Autowired
+    private OrderPurgeService orderPurgeService;
+
+    @Value("${orders.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${orders.stream.chunk-size:200}")
+    private int streamChunkSize;
+
     // 1) LIST ALL
     @GetMapping("/orders")
     public String showAllOrders(Model model) {
         model.addAttribute("title", "All Orders");
-        model.addAttribute("orders", ordersDataService.getAll());
+        model.addAttribute("orders", ordersDataService.getAllViews());
+        return "allOrders";
+    }
+
+    // 1b) LIST ALL, STREAMED
+    // Rows come off a DB cursor while the template renders and the response
+    // is flushed every chunk, so large lists never sit in memory as a whole.
+    @GetMapping("/orders/stream")
+    public String streamAllOrders(Model model, HttpServletResponse response) {
+        ChunkedFlushIterable<OrderView> orders = new ChunkedFlushIterable<>(
+                ordersDataService.streamAll(streamFetchSize), response::flushBuffer, streamChunkSize);
+        // Release the cursor even if rendering fails part way through.
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                "orders.stream", orders::close, RequestAttributes.SCOPE_REQUEST);
+
+        model.addAttribute("title", "All Orders");
+        model.addAttribute("orders", orders);
         return "allOrders";
     }
 
@@ -68,4 +103,36 @@ public class OrdersController {
         ordersDataService.deleteById(id);
         return "redirect:/orders";
     }
+
+    // 8) BULK DELETE FORM + JOB PROGRESS
+    @GetMapping("/orders/bulkDelete")
+    public String bulkDeleteForm(Model model) {
+        List<OrderPurgeJobModel> jobs = orderPurgeService.recentJobs(20);
+        model.addAttribute("title", "Bulk Delete Orders");
+        model.addAttribute("jobs", jobs);
+        model.addAttribute("anyActive", jobs.stream().anyMatch(OrderPurgeJobModel::isActive));
+        return "bulkDeleteOrders";
+    }
+
+    // 9) BULK DELETE SUBMIT (POST) - hides and purges in the background
+    @PostMapping("/orders/processBulkDelete")
+    public String processBulkDelete(@RequestParam(required = false) String productName,
+                                    @RequestParam(required = false) String orderNumberFrom,
+                                    @RequestParam(required = false) String orderNumberTo,
+                                    Model model) {
+        try {
+            orderPurgeService.startJob(productName, orderNumberFrom, orderNumberTo);
+        } catch (IllegalArgumentException ex) {
+            model.addAttribute("error", ex.getMessage());
+            return bulkDeleteForm(model);
+        }
+        return "redirect:/orders/bulkDelete";
+    }
+
+    // 10) CANCEL BULK DELETE (POST) - rows not yet purged are restored
+    @PostMapping("/orders/bulkDelete/cancel")
+    public String cancelBulkDelete(@RequestParam int id) {
+        orderPurgeService.cancel(id);
+        return "redirect:/orders/bulkDelete";
+    }
 }
@@ -0,0 +1,30 @@
+package edu.brajovic.products.controller;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+import edu.brajovic.products.monitoring.SqlTraceRegistry;
+
+@Controller
+@RequestMapping("/admin/sql")
+public class SqlStatsController {
+
+    private final SqlTraceRegistry registry;
+
+    public SqlStatsController(SqlTraceRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping
+    public String sqlStats(@RequestParam(defaultValue = "25") int limit, Model model) {
+        model.addAttribute("endpoints", registry.worstOffenders(limit));
+        return "sqlStats";
+    }
+
+    @PostMapping("/reset")
+    public String reset() {
+        registry.reset();
+        return "redirect:/admin/sql";
+    }
+}
@@ -21,7 +21,7 @@ public class UserAdminController {
     @GetMapping
     public String userAdmin(Model model) {
         try {
-            model.addAttribute("users", userService.getAll());
+            model.addAttribute("users", userService.getAllViews());
         } catch (Exception ex) {
             model.addAttribute("error", "Failed to load users. Please try again later.");
             ex.printStackTrace(); 
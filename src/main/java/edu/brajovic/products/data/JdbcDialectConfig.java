@@ -0,0 +1,26 @@
+package edu.brajovic.products.data;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jdbc.core.dialect.JdbcDialect;
+import org.springframework.data.jdbc.core.dialect.JdbcMySqlDialect;
+import org.springframework.data.relational.core.sql.IdentifierProcessing;
+import org.springframework.data.relational.core.sql.IdentifierProcessing.LetterCasing;
+import org.springframework.data.relational.core.sql.IdentifierProcessing.Quoting;
+
+/**
+ * Without this Spring Data JDBC opens a connection during startup just to
+ * detect the database, which slows every boot and breaks the CDS training
+ * run when no database is reachable. Production is always MySQL.
+ */
+@Configuration
+@Profile("prod")
+public class JdbcDialectConfig {
+
+    @Bean
+    public JdbcDialect jdbcDialect() {
+        // Backtick quoting and lower-case identifiers, as the detected MySQL dialect uses.
+        return new JdbcMySqlDialect(IdentifierProcessing.create(new Quoting("`"), LetterCasing.LOWER_CASE));
+    }
+}
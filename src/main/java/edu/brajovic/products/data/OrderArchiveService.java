@@ -0,0 +1,119 @@
+package edu.brajovic.products.data;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves orders that have not been touched for orders.archive.max-age-days
+ * from ORDERS into ORDERS_ARCHIVE so the hot table and its indexes stay
+ * small. Each batch is copied and deleted in its own transaction, so an
+ * interrupted run simply carries on from the oldest remaining rows.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final String COLUMNS = "ID, ORDER_NUMBER, PRODUCT_NAME, PRICE, QTY, CREATED_AT, UPDATED_AT";
+
+    // Checked again by every statement of a batch, not just the first.
+    private static final String ARCHIVABLE = "UPDATED_AT < :cutoff AND DELETED = FALSE";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxAgeDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OrderArchiveService(NamedParameterJdbcTemplate jdbc,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${orders.archive.enabled:true}") boolean enabled,
+                               @Value("${orders.archive.max-age-days:365}") int maxAgeDays,
+                               @Value("${orders.archive.batch-size:1000}") int batchSize,
+                               @Value("${orders.archive.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${orders.archive.cron:0 30 2 * * *}")
+    public void runArchiver() {
+        if (!enabled) {
+            return;
+        }
+        int total = archiveOlderThan(LocalDateTime.now().minusDays(maxAgeDays));
+        if (total > 0) {
+            log.info("Archived {} orders last updated more than {} days ago", total, maxAgeDays);
+        }
+    }
+
+    /**
+     * Archives live orders last updated before the cutoff, one batch per
+     * transaction. Soft-deleted rows are left for the purger.
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", batchSize);
+        List<Integer> ids = jdbc.queryForList("SELECT ID FROM ORDERS WHERE " + ARCHIVABLE
+                + " ORDER BY ID LIMIT :limit", params, Integer.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        params.addValue("ids", ids);
+        // Rows marked by the purger or edited since the SELECT stay put and lose their copy.
+        jdbc.update("INSERT INTO ORDERS_ARCHIVE (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM ORDERS WHERE ID IN (:ids) AND " + ARCHIVABLE, params);
+        int moved = jdbc.update("DELETE FROM ORDERS WHERE ID IN (:ids) AND " + ARCHIVABLE, params);
+        if (moved < ids.size()) {
+            jdbc.update("DELETE FROM ORDERS_ARCHIVE WHERE ID IN (:ids) "
+                    + "AND ID IN (SELECT ID FROM ORDERS WHERE ID IN (:ids))", params);
+        }
+        return moved;
+    }
+
+    /**
+     * Moves one archived order back into ORDERS, e.g. before it is edited.
+     * Returns false if the id is not in the archive.
+     */
+    public boolean restore(int id) {
+        Boolean restored = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource("id", id);
+            int copied = jdbc.update("INSERT INTO ORDERS (" + COLUMNS + ") SELECT " + COLUMNS
+                    + " FROM ORDERS_ARCHIVE WHERE ID = :id", params);
+            jdbc.update("DELETE FROM ORDERS_ARCHIVE WHERE ID = :id", params);
+            return copied > 0;
+        });
+        return Boolean.TRUE.equals(restored);
+    }
+
+    public boolean deleteArchived(int id) {
+        return jdbc.update("DELETE FROM ORDERS_ARCHIVE WHERE ID = :id", new MapSqlParameterSource("id", id)) > 0;
+    }
+}
@@ -0,0 +1,35 @@
+package edu.brajovic.products.data;
+
+import java.util.List;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import edu.brajovic.products.models.OrderPurgeJobEntity;
+
+@Repository
+public interface OrderPurgeJobsRepository extends CrudRepository<OrderPurgeJobEntity, Integer> {
+
+    @Query("SELECT * FROM ORDER_PURGE_JOBS WHERE STATUS IN ('MARKING', 'PURGING', 'CANCELLING') ORDER BY ID")
+    List<OrderPurgeJobEntity> findActive();
+
+    @Query("SELECT * FROM ORDER_PURGE_JOBS ORDER BY ID DESC LIMIT :limit")
+    List<OrderPurgeJobEntity> findRecent(int limit);
+
+    // Status moves are compare-and-set so a cancel is never overwritten by the purger.
+    @Modifying
+    @Query("UPDATE ORDER_PURGE_JOBS SET STATUS = :to, UPDATED_AT = CURRENT_TIMESTAMP WHERE ID = :id AND STATUS = :from")
+    boolean moveStatus(int id, String from, String to);
+
+    @Modifying
+    @Query("UPDATE ORDER_PURGE_JOBS SET MARKED = MARKED + :marked, PURGED = PURGED + :purged, "
+            + "RESTORED = RESTORED + :restored, UPDATED_AT = CURRENT_TIMESTAMP WHERE ID = :id")
+    void addProgress(int id, int marked, int purged, int restored);
+
+    @Modifying
+    @Query("UPDATE ORDER_PURGE_JOBS SET MARK_CURSOR = :cursor, UPDATED_AT = CURRENT_TIMESTAMP "
+            + "WHERE ID = :id AND MARK_CURSOR < :cursor")
+    void advanceMarkCursor(int id, int cursor);
+}
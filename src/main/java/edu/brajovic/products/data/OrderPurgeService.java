@@ -0,0 +1,264 @@
+package edu.brajovic.products.data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import edu.brajovic.products.audit.OrderAuditTrail;
+import edu.brajovic.products.models.Mapper;
+import edu.brajovic.products.models.OrderPurgeJobEntity;
+import edu.brajovic.products.models.OrderPurgeJobModel;
+import edu.brajovic.products.models.OrderView;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Filter-based bulk delete for orders. A job only covers orders that
+ * existed when it started (ids up to MAX_ORDER_ID). The background purger
+ * first soft-deletes the matching rows, walking forward by id from
+ * MARK_CURSOR, then hard-deletes them. Every phase works in small id-keyed
+ * chunks with a pause in between, so no statement holds locks on more than
+ * one chunk of ORDERS at a time.
+ *
+ * The purger runs on its own thread; its pauses would otherwise hold up
+ * every other @Scheduled job on the shared scheduler thread.
+ *
+ * Job lifecycle: MARKING -> PURGING -> DONE, or CANCELLING -> CANCELLED,
+ * in which case rows not yet purged are restored. Every hard-deleted row
+ * gets a DELETE event in the order audit trail, as user purge-job-{id}.
+ */
+@Service
+public class OrderPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPurgeService.class);
+
+    public static final String MARKING = "MARKING";
+    public static final String PURGING = "PURGING";
+    public static final String DONE = "DONE";
+    public static final String CANCELLING = "CANCELLING";
+    public static final String CANCELLED = "CANCELLED";
+
+    private final OrderPurgeJobsRepository jobsRepository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final OrderAuditTrail orderAuditTrail;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMillis;
+    private final ExecutorService purgerThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-purger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean purgerQueued = new AtomicBoolean();
+
+    public OrderPurgeService(OrderPurgeJobsRepository jobsRepository,
+                             NamedParameterJdbcTemplate jdbc,
+                             OrderAuditTrail orderAuditTrail,
+                             @Value("${orders.purge.chunk-size:500}") int chunkSize,
+                             @Value("${orders.purge.max-chunks-per-run:20}") int maxChunksPerRun,
+                             @Value("${orders.purge.pause-ms:100}") long pauseMillis) {
+        this.jobsRepository = jobsRepository;
+        this.jdbc = jdbc;
+        this.orderAuditTrail = orderAuditTrail;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMillis = pauseMillis;
+    }
+
+    public OrderPurgeJobModel startJob(String productName, String orderNumberFrom, String orderNumberTo) {
+        OrderPurgeJobEntity job = new OrderPurgeJobEntity();
+        job.setProductName(blankToNull(productName));
+        job.setOrderNumberFrom(blankToNull(orderNumberFrom));
+        job.setOrderNumberTo(blankToNull(orderNumberTo));
+        if (job.getProductName() == null && job.getOrderNumberFrom() == null && job.getOrderNumberTo() == null) {
+            throw new IllegalArgumentException("At least one filter is required");
+        }
+
+        Integer maxId = jdbc.queryForObject("SELECT MAX(ID) FROM ORDERS", new MapSqlParameterSource(), Integer.class);
+        job.setMaxOrderId(maxId == null ? 0 : maxId);
+        MapSqlParameterSource params = filterParams(job);
+        Integer matched = jdbc.queryForObject("SELECT COUNT(*) FROM ORDERS WHERE ID <= :maxId AND DELETED = FALSE"
+                + filterSql(job), params, Integer.class);
+        job.setMatched(matched == null ? 0 : matched);
+        job.setStatus(MARKING);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        return Mapper.toModel(jobsRepository.save(job));
+    }
+
+    public boolean cancel(int id) {
+        return jobsRepository.moveStatus(id, MARKING, CANCELLING)
+                || jobsRepository.moveStatus(id, PURGING, CANCELLING);
+    }
+
+    public OrderPurgeJobModel getJob(int id) {
+        return Mapper.toModel(jobsRepository.findById(id).orElse(null));
+    }
+
+    public List<OrderPurgeJobModel> recentJobs(int limit) {
+        List<OrderPurgeJobEntity> entities = jobsRepository.findRecent(limit);
+        List<OrderPurgeJobModel> models = new ArrayList<>(entities.size());
+        for (OrderPurgeJobEntity e : entities) {
+            models.add(Mapper.toModel(e));
+        }
+        return models;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.purge.interval-ms:5000}")
+    public void schedulePurger() {
+        if (purgerQueued.compareAndSet(false, true)) {
+            purgerThread.execute(() -> {
+                try {
+                    runPurger();
+                } catch (RuntimeException ex) {
+                    // Off the scheduler thread nothing else would log it; the next tick retries.
+                    log.error("Order purger run failed", ex);
+                } finally {
+                    purgerQueued.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgerThread.shutdownNow();
+    }
+
+    /**
+     * Runs up to max-chunks-per-run chunks of every active job on the
+     * calling thread.
+     */
+    public synchronized void runPurger() {
+        for (OrderPurgeJobEntity active : jobsRepository.findActive()) {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                // Re-read each time so a cancel takes effect before the next chunk.
+                OrderPurgeJobEntity job = jobsRepository.findById(active.getId()).orElse(null);
+                if (job == null || !step(job)) {
+                    break;
+                }
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one chunk of the job's current phase. Returns false once the
+     * job has nothing more to do in this run.
+     */
+    boolean step(OrderPurgeJobEntity job) {
+        switch (job.getStatus()) {
+            case MARKING: {
+                // Pages forward by primary key, so each chunk scans on from where the last one stopped.
+                MapSqlParameterSource params = filterParams(job).addValue("jobId", job.getId())
+                        .addValue("cursor", job.getMarkCursor());
+                List<Integer> ids = nextIds("ID > :cursor AND ID <= :maxId AND DELETED = FALSE "
+                        + "AND PURGE_JOB_ID IS NULL" + filterSql(job), params);
+                if (ids.isEmpty()) {
+                    // If the compare-and-set loses, a cancel got in first; either way, re-read and continue.
+                    jobsRepository.moveStatus(job.getId(), MARKING, PURGING);
+                    return true;
+                }
+                int marked = jdbc.update("UPDATE ORDERS SET DELETED = TRUE, PURGE_JOB_ID = :jobId "
+                        + "WHERE ID IN (:ids) AND DELETED = FALSE", params.addValue("ids", ids));
+                jobsRepository.addProgress(job.getId(), marked, 0, 0);
+                jobsRepository.advanceMarkCursor(job.getId(), ids.get(ids.size() - 1));
+                return true;
+            }
+            case PURGING: {
+                // Whole rows, not just ids: they are the before images for the audit trail.
+                MapSqlParameterSource params = new MapSqlParameterSource("jobId", job.getId())
+                        .addValue("limit", chunkSize);
+                List<OrderView> rows = jdbc.query("SELECT ID, ORDER_NUMBER, PRODUCT_NAME, PRICE, QTY FROM ORDERS "
+                        + "WHERE PURGE_JOB_ID = :jobId AND DELETED = TRUE ORDER BY ID LIMIT :limit",
+                        params, new OrderView.Row());
+                if (rows.isEmpty()) {
+                    jobsRepository.moveStatus(job.getId(), PURGING, DONE);
+                    return false;
+                }
+                List<Integer> ids = new ArrayList<>(rows.size());
+                for (OrderView row : rows) {
+                    ids.add(row.id());
+                }
+                int purged = jdbc.update("DELETE FROM ORDERS WHERE ID IN (:ids) AND PURGE_JOB_ID = :jobId",
+                        params.addValue("ids", ids));
+                for (OrderView row : rows) {
+                    orderAuditTrail.recordPurge(row, job.getId());
+                }
+                jobsRepository.addProgress(job.getId(), 0, purged, 0);
+                return true;
+            }
+            case CANCELLING: {
+                MapSqlParameterSource params = new MapSqlParameterSource("jobId", job.getId());
+                List<Integer> ids = nextIds("PURGE_JOB_ID = :jobId", params);
+                if (ids.isEmpty()) {
+                    jobsRepository.moveStatus(job.getId(), CANCELLING, CANCELLED);
+                    return false;
+                }
+                int restored = jdbc.update("UPDATE ORDERS SET DELETED = FALSE, PURGE_JOB_ID = NULL "
+                        + "WHERE ID IN (:ids) AND PURGE_JOB_ID = :jobId", params.addValue("ids", ids));
+                jobsRepository.addProgress(job.getId(), 0, 0, restored);
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    private List<Integer> nextIds(String where, MapSqlParameterSource params) {
+        params.addValue("limit", chunkSize);
+        return jdbc.queryForList("SELECT ID FROM ORDERS WHERE " + where + " ORDER BY ID LIMIT :limit",
+                params, Integer.class);
+    }
+
+    private static String filterSql(OrderPurgeJobEntity job) {
+        StringBuilder sql = new StringBuilder();
+        if (job.getProductName() != null) {
+            sql.append(" AND PRODUCT_NAME = :productName");
+        }
+        if (job.getOrderNumberFrom() != null) {
+            sql.append(" AND ORDER_NUMBER >= :orderNumberFrom");
+        }
+        if (job.getOrderNumberTo() != null) {
+            sql.append(" AND ORDER_NUMBER <= :orderNumberTo");
+        }
+        return sql.toString();
+    }
+
+    private static MapSqlParameterSource filterParams(OrderPurgeJobEntity job) {
+        return new MapSqlParameterSource()
+                .addValue("maxId", job.getMaxOrderId())
+                .addValue("productName", job.getProductName())
+                .addValue("orderNumberFrom", job.getOrderNumberFrom())
+                .addValue("orderNumberTo", job.getOrderNumberTo());
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,447 @@
+package edu.brajovic.products.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process, column-wise copy of the live ORDERS rows for dashboard
+ * filters and aggregates. Each column is a primitive array indexed by row:
+ * ids and quantities as int, prices as long cents, product names as int
+ * codes into a dictionary. Queries scan the arrays in parallel on the
+ * common fork-join pool and never touch the database.
+ *
+ * OrdersDataService pushes its creates, updates and deletes here as they
+ * happen. Bulk purges and archiving bypass the service, so a periodic full
+ * reload (orders.snapshot.reload-ms) catches those and compacts deleted rows.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.snapshot.enabled", havingValue = "true")
+public class OrderSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSnapshot.class);
+
+    // In id order, so every row is appended to the sorted id column.
+    private static final String LOAD_SQL = "SELECT ID, PRODUCT_NAME, PRICE, QTY FROM ORDERS WHERE DELETED = FALSE "
+            + "ORDER BY ID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int splitThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Columns columns = new Columns(1024);
+    // Mutations that arrive while a reload is building new columns; replayed before the swap.
+    private List<Consumer<Columns>> pending;
+
+    public OrderSnapshot(JdbcTemplate jdbcTemplate,
+                         @Value("${orders.snapshot.split-threshold:16384}") int splitThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.splitThreshold = splitThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${orders.snapshot.reload-ms:600000}",
+               fixedDelayString = "${orders.snapshot.reload-ms:600000}")
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        Columns fresh = new Columns(Math.max(1024, columns.size));
+        try {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(LOAD_SQL);
+                ps.setFetchSize(1000);
+                return ps;
+            }, rs -> {
+                fresh.put(rs.getInt("ID"), rs.getString("PRODUCT_NAME"), rs.getDouble("PRICE"), rs.getInt("QTY"));
+            });
+        } catch (RuntimeException ex) {
+            // Keep serving the old columns; they already have every change made meanwhile.
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Order snapshot reload failed, keeping the previous {} rows", size(), ex);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Columns> change : pending) {
+                change.accept(fresh);
+            }
+            pending = null;
+            columns = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Order snapshot loaded {} rows in {} ms", fresh.live, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void onSaved(int id, String productName, double price, int quantity) {
+        apply(c -> c.put(id, productName, price, quantity));
+    }
+
+    public void onDeleted(int id) {
+        apply(c -> c.remove(id));
+    }
+
+    private void apply(Consumer<Columns> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count, quantity, revenue and price range over the rows matching the filter.
+     */
+    public Stats aggregate(Filter filter) {
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            boolean[] productMask = filter.productMask(c);
+            return new AggregateTask(c, filter, productMask, 0, c.size, splitThreshold).invoke();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #aggregate} but split by product name.
+     */
+    public Map<String, Stats> aggregateByProduct(Filter filter) {
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            boolean[] productMask = filter.productMask(c);
+            Stats[] byCode = new GroupTask(c, filter, productMask, 0, c.size, splitThreshold).invoke();
+            Map<String, Stats> result = new LinkedHashMap<>();
+            for (int code = 0; code < byCode.length; code++) {
+                if (byCode[code] != null && byCode[code].count > 0) {
+                    result.put(c.dictionary.get(code), byCode[code]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static Filter filter() {
+        return new Filter();
+    }
+
+    /**
+     * Row predicate over the snapshot columns. Unset bounds match everything.
+     */
+    public static class Filter {
+        private long minPriceCents = Long.MIN_VALUE;
+        private long maxPriceCents = Long.MAX_VALUE;
+        private int minQuantity = Integer.MIN_VALUE;
+        private int maxQuantity = Integer.MAX_VALUE;
+        private Collection<String> products;
+
+        public Filter priceBetween(Double min, Double max) {
+            if (min != null) minPriceCents = toCents(min);
+            if (max != null) maxPriceCents = toCents(max);
+            return this;
+        }
+
+        public Filter quantityBetween(Integer min, Integer max) {
+            if (min != null) minQuantity = min;
+            if (max != null) maxQuantity = max;
+            return this;
+        }
+
+        public Filter products(Collection<String> names) {
+            products = names == null || names.isEmpty() ? null : names;
+            return this;
+        }
+
+        boolean[] productMask(Columns c) {
+            if (products == null) {
+                return null;
+            }
+            boolean[] mask = new boolean[c.dictionary.size()];
+            for (String name : products) {
+                Integer code = c.codes.get(name);
+                if (code != null) {
+                    mask[code] = true;
+                }
+            }
+            return mask;
+        }
+
+        boolean matches(Columns c, boolean[] productMask, int row) {
+            long price = c.priceCents[row];
+            int qty = c.quantities[row];
+            return price >= minPriceCents && price <= maxPriceCents
+                    && qty >= minQuantity && qty <= maxQuantity
+                    && (productMask == null || productMask[c.productCodes[row]]);
+        }
+    }
+
+    public static class Stats {
+        private long count;
+        private long totalQuantity;
+        private long revenueCents;
+        private long minPriceCents = Long.MAX_VALUE;
+        private long maxPriceCents = Long.MIN_VALUE;
+
+        void add(long priceCents, int quantity) {
+            count++;
+            totalQuantity += quantity;
+            revenueCents += priceCents * quantity;
+            minPriceCents = Math.min(minPriceCents, priceCents);
+            maxPriceCents = Math.max(maxPriceCents, priceCents);
+        }
+
+        Stats merge(Stats other) {
+            count += other.count;
+            totalQuantity += other.totalQuantity;
+            revenueCents += other.revenueCents;
+            minPriceCents = Math.min(minPriceCents, other.minPriceCents);
+            maxPriceCents = Math.max(maxPriceCents, other.maxPriceCents);
+            return this;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalQuantity() {
+            return totalQuantity;
+        }
+
+        public double getRevenue() {
+            return revenueCents / 100.0;
+        }
+
+        public double getMinPrice() {
+            return count == 0 ? 0 : minPriceCents / 100.0;
+        }
+
+        public double getMaxPrice() {
+            return count == 0 ? 0 : maxPriceCents / 100.0;
+        }
+
+        public double getAvgQuantity() {
+            return count == 0 ? 0 : (double) totalQuantity / count;
+        }
+    }
+
+    private static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    /**
+     * The column arrays, with rows kept in ascending id order so a lookup is a
+     * binary search of the id column and needs no index of its own. A deleted
+     * row only clears its live flag until the next reload compacts it away.
+     */
+    static final class Columns {
+        int size;
+        int live;
+        int[] ids;
+        int[] quantities;
+        long[] priceCents;
+        int[] productCodes;
+        boolean[] alive;
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> dictionary = new ArrayList<>();
+
+        Columns(int capacity) {
+            ids = new int[capacity];
+            quantities = new int[capacity];
+            priceCents = new long[capacity];
+            productCodes = new int[capacity];
+            alive = new boolean[capacity];
+        }
+
+        void put(int id, String productName, double price, int quantity) {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            if (row < 0) {
+                row = insertAt(-row - 1);
+                ids[row] = id;
+            }
+            if (!alive[row]) {
+                alive[row] = true;
+                live++;
+            }
+            quantities[row] = quantity;
+            priceCents[row] = toCents(price);
+            productCodes[row] = code(productName);
+        }
+
+        void remove(int id) {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            if (row >= 0 && alive[row]) {
+                alive[row] = false;
+                live--;
+            }
+        }
+
+        // New ids are normally the largest yet and land at the end; anything else shifts the tail.
+        private int insertAt(int row) {
+            if (size == ids.length) {
+                grow();
+            }
+            int tail = size - row;
+            if (tail > 0) {
+                System.arraycopy(ids, row, ids, row + 1, tail);
+                System.arraycopy(quantities, row, quantities, row + 1, tail);
+                System.arraycopy(priceCents, row, priceCents, row + 1, tail);
+                System.arraycopy(productCodes, row, productCodes, row + 1, tail);
+                System.arraycopy(alive, row, alive, row + 1, tail);
+            }
+            alive[row] = false;
+            size++;
+            return row;
+        }
+
+        private int code(String productName) {
+            Integer code = codes.get(productName);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(productName);
+                codes.put(productName, code);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            productCodes = Arrays.copyOf(productCodes, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+        }
+    }
+
+    private static final class AggregateTask extends RecursiveTask<Stats> {
+        private final Columns c;
+        private final Filter filter;
+        private final boolean[] productMask;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        AggregateTask(Columns c, Filter filter, boolean[] productMask, int from, int to, int threshold) {
+            this.c = c;
+            this.filter = filter;
+            this.productMask = productMask;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= threshold) {
+                Stats stats = new Stats();
+                for (int row = from; row < to; row++) {
+                    if (c.alive[row] && filter.matches(c, productMask, row)) {
+                        stats.add(c.priceCents[row], c.quantities[row]);
+                    }
+                }
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(c, filter, productMask, from, mid, threshold);
+            left.fork();
+            Stats right = new AggregateTask(c, filter, productMask, mid, to, threshold).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class GroupTask extends RecursiveTask<Stats[]> {
+        private final Columns c;
+        private final Filter filter;
+        private final boolean[] productMask;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        GroupTask(Columns c, Filter filter, boolean[] productMask, int from, int to, int threshold) {
+            this.c = c;
+            this.filter = filter;
+            this.productMask = productMask;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Stats[] compute() {
+            if (to - from <= threshold) {
+                Stats[] groups = new Stats[c.dictionary.size()];
+                for (int row = from; row < to; row++) {
+                    if (c.alive[row] && filter.matches(c, productMask, row)) {
+                        int code = c.productCodes[row];
+                        if (groups[code] == null) {
+                            groups[code] = new Stats();
+                        }
+                        groups[code].add(c.priceCents[row], c.quantities[row]);
+                    }
+                }
+                return groups;
+            }
+            int mid = (from + to) >>> 1;
+            GroupTask left = new GroupTask(c, filter, productMask, from, mid, threshold);
+            left.fork();
+            Stats[] right = new GroupTask(c, filter, productMask, mid, to, threshold).compute();
+            Stats[] merged = left.join();
+            for (int code = 0; code < merged.length; code++) {
+                if (merged[code] == null) {
+                    merged[code] = right[code];
+                } else if (right[code] != null) {
+                    merged[code].merge(right[code]);
+                }
+            }
+            return merged;
+        }
+    }
+}
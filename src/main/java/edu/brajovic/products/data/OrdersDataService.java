@@ -1,51 +1,135 @@
 package edu.brajovic.products.data;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import edu.brajovic.products.audit.OrderAuditTrail;
 import edu.brajovic.products.models.Mapper;
 import edu.brajovic.products.models.OrderEntity;
 import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.models.OrderView;
 
 @Service
 public class OrdersDataService implements DataAccessInterface<OrderModel> {
 
+    private static final String STREAM_ALL_SQL =
+            "SELECT ID, ORDER_NUMBER, PRODUCT_NAME, PRICE, QTY FROM ORDERS WHERE DELETED = FALSE ORDER BY ID";
+
     @Autowired
     private OrdersRepository ordersRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderAuditTrail orderAuditTrail;
+
+    // Only present when orders.snapshot.enabled=true.
+    @Autowired(required = false)
+    private OrderSnapshot orderSnapshot;
+
     @Override
     public OrderModel getById(int id) {
-        OrderEntity entity = ordersRepository.findById(id).orElse(null);
+        OrderEntity entity = ordersRepository.findActiveById(id);
+        if (entity == null) {
+            // Old orders live in ORDERS_ARCHIVE; only misses pay for the second lookup.
+            entity = ordersRepository.findArchivedById(id);
+        }
         return Mapper.toModel(entity);
     }
 
     @Override
     public Iterable<OrderModel> getAll() {
-        ArrayList<OrderModel> models = new ArrayList<>();
-        Iterable<OrderEntity> entities = ordersRepository.findAll();
+        List<OrderEntity> entities = ordersRepository.findAllActive();
+        ArrayList<OrderModel> models = new ArrayList<>(entities.size());
         for (OrderEntity e : entities) {
             models.add(Mapper.toModel(e));
         }
         return models;
     }
 
+    /**
+     * Read-only list for display. Rows go straight into immutable views,
+     * skipping the entity and the model copy.
+     */
+    public List<OrderView> getAllViews() {
+        return ordersRepository.findAllViews();
+    }
+
+    /**
+     * The first {@code limit} live order ids, e.g. for the warm-up to look at.
+     */
+    public List<Integer> getActiveIds(int limit) {
+        return ordersRepository.findActiveIds(limit);
+    }
+
+    /**
+     * Streams every order straight off a forward-only cursor instead of
+     * loading the whole table. The caller must close the stream, which
+     * releases the connection.
+     */
+    public Stream<OrderView> streamAll(int fetchSize) {
+        return jdbcTemplate.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, new OrderView.Row());
+    }
+
     @Override
     public OrderModel create(OrderModel item) {
-        OrderEntity saved = ordersRepository.save(Mapper.toEntity(item));
+        OrderEntity entity = Mapper.toEntity(item);
+        entity.setUpdatedAt(LocalDateTime.now());
+        OrderEntity saved = ordersRepository.save(entity);
+        if (orderSnapshot != null) {
+            orderSnapshot.onSaved(saved.getId(), saved.getProduct_name(), saved.getPrice(), saved.getQuantity());
+        }
         return Mapper.toModel(saved);
     }
 
     @Override
     public OrderModel update(OrderModel item) {
-        OrderEntity saved = ordersRepository.save(Mapper.toEntity(item));
-        return Mapper.toModel(saved);
+        OrderView before = orderAuditTrail.isEnabled() ? OrderView.of(getById(item.getId())) : null;
+        LocalDateTime now = LocalDateTime.now();
+        boolean updated = ordersRepository.updateOrder(item.getId(), item.getOrder_number(),
+                item.getProduct_name(), item.getPrice(), item.getQuantity(), now);
+        // No hot row to update: bring an archived order back before editing it.
+        if (!updated && orderArchiveService.restore(item.getId())) {
+            updated = ordersRepository.updateOrder(item.getId(), item.getOrder_number(),
+                    item.getProduct_name(), item.getPrice(), item.getQuantity(), now);
+        }
+        if (updated && before != null) {
+            orderAuditTrail.recordUpdate(before, OrderView.of(item));
+        }
+        if (updated && orderSnapshot != null) {
+            orderSnapshot.onSaved(item.getId(), item.getProduct_name(), item.getPrice(), item.getQuantity());
+        }
+        return item;
     }
 
     @Override
     public boolean deleteById(int id) {
+        OrderView before = orderAuditTrail.isEnabled() ? OrderView.of(getById(id)) : null;
         ordersRepository.deleteById(id);
+        orderArchiveService.deleteArchived(id);
+        if (before != null) {
+            orderAuditTrail.recordDelete(before);
+        }
+        if (orderSnapshot != null) {
+            orderSnapshot.onDeleted(id);
+        }
         return true;
     }
 }
@@ -1,9 +1,40 @@
 package edu.brajovic.products.data;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import edu.brajovic.products.models.OrderEntity;
+import edu.brajovic.products.models.OrderView;
 
 @Repository
 public interface OrdersRepository extends CrudRepository<OrderEntity, Integer> {
+
+    // Soft-deleted rows wait for the background purger and must stay hidden.
+    @Query("SELECT * FROM ORDERS WHERE ID = :id AND DELETED = FALSE")
+    OrderEntity findActiveById(int id);
+
+    @Query("SELECT * FROM ORDERS WHERE DELETED = FALSE")
+    List<OrderEntity> findAllActive();
+
+    // Read-only projection for list pages: one record per row, no entity in between.
+    @Query(value = "SELECT ID, ORDER_NUMBER, PRODUCT_NAME, PRICE, QTY FROM ORDERS WHERE DELETED = FALSE ORDER BY ID",
+            rowMapperClass = OrderView.Row.class)
+    List<OrderView> findAllViews();
+
+    @Query("SELECT ID FROM ORDERS WHERE DELETED = FALSE ORDER BY ID LIMIT :limit")
+    List<Integer> findActiveIds(int limit);
+
+    @Query("SELECT * FROM ORDERS_ARCHIVE WHERE ID = :id")
+    OrderEntity findArchivedById(int id);
+
+    // Unlike save(), this reports whether a hot row was actually there to update.
+    @Modifying
+    @Query("UPDATE ORDERS SET ORDER_NUMBER = :orderNumber, PRODUCT_NAME = :productName, PRICE = :price, "
+            + "QTY = :quantity, UPDATED_AT = :updatedAt WHERE ID = :id AND DELETED = FALSE")
+    boolean updateOrder(int id, String orderNumber, String productName, double price, int quantity,
+                        LocalDateTime updatedAt);
 }
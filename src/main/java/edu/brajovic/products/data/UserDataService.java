@@ -1,6 +1,7 @@
 package edu.brajovic.products.data;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Service;
 import edu.brajovic.products.models.Mapper;
 import edu.brajovic.products.models.UserEntity;
 import edu.brajovic.products.models.UserModel;
+import edu.brajovic.products.models.UserView;
 
 @Service
 public class UserDataService implements DataAccessInterface<UserModel>{
@@ -27,14 +29,21 @@ public class UserDataService implements DataAccessInterface<UserModel>{
 
     @Override
     public Iterable<UserModel> getAll() {
-        ArrayList<UserModel> models = new ArrayList<>();
-        Iterable<UserEntity> entities = usersRepository.findAll();
+        List<UserEntity> entities = usersRepository.findAll();
+        ArrayList<UserModel> models = new ArrayList<>(entities.size());
         for (UserEntity e : entities) {
             models.add(Mapper.toModel(e));
         }
         return models;
     }
 
+    /**
+     * Read-only list for the admin page, without password hashes.
+     */
+    public List<UserView> getAllViews() {
+        return usersRepository.findAllViews();
+    }
+
     @Override
     public UserModel create(UserModel item) {
         UserEntity saved = usersRepository.save(Mapper.toEntity(item));
@@ -1,12 +1,19 @@
 package edu.brajovic.products.data;
 
-import org.springframework.data.repository.CrudRepository;
+import java.util.List;
+
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
 import edu.brajovic.products.models.UserEntity;
+import edu.brajovic.products.models.UserView;
 
 @Repository
-public interface UsersRepository extends CrudRepository<UserEntity, Integer> {
+public interface UsersRepository extends ListCrudRepository<UserEntity, Integer> {
 UserEntity findByUsername(String username);
-    
+
+    // Admin list projection; leaves the password hash in the database.
+    @Query(value = "SELECT ID, USERNAME, ROLE, ENABLED FROM USERS ORDER BY ID", rowMapperClass = UserView.Row.class)
+    List<UserView> findAllViews();
 }
@@ -45,4 +45,21 @@ public class Mapper {
                 model.isEnabled()
         );
     }
+
+    public static OrderPurgeJobModel toModel(OrderPurgeJobEntity entity) {
+        if (entity == null) return null;
+        OrderPurgeJobModel model = new OrderPurgeJobModel();
+        model.setId(entity.getId());
+        model.setProductName(entity.getProductName());
+        model.setOrderNumberFrom(entity.getOrderNumberFrom());
+        model.setOrderNumberTo(entity.getOrderNumberTo());
+        model.setStatus(entity.getStatus());
+        model.setMatched(entity.getMatched());
+        model.setMarked(entity.getMarked());
+        model.setPurged(entity.getPurged());
+        model.setRestored(entity.getRestored());
+        model.setCreatedAt(entity.getCreatedAt());
+        model.setUpdatedAt(entity.getUpdatedAt());
+        return model;
+    }
 }
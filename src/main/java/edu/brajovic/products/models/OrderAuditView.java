@@ -0,0 +1,37 @@
+package edu.brajovic.products.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * One ORDER_AUDIT row for the history page. The new_* values are null for
+ * deletes.
+ */
+public record OrderAuditView(long id, int orderId, String action, String username, LocalDateTime changedAt,
+                             String oldOrderNumber, String oldProductName, Double oldPrice, Integer oldQuantity,
+                             String newOrderNumber, String newProductName, Double newPrice, Integer newQuantity) {
+
+    public static class Row implements RowMapper<OrderAuditView> {
+        @Override
+        public OrderAuditView mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new OrderAuditView(
+                    rs.getLong("ID"),
+                    rs.getInt("ORDER_ID"),
+                    rs.getString("ACTION"),
+                    rs.getString("USERNAME"),
+                    rs.getTimestamp("CHANGED_AT").toLocalDateTime(),
+                    rs.getString("OLD_ORDER_NUMBER"),
+                    rs.getString("OLD_PRODUCT_NAME"),
+                    rs.getObject("OLD_PRICE", Double.class),
+                    rs.getObject("OLD_QTY", Integer.class),
+                    rs.getString("NEW_ORDER_NUMBER"),
+                    rs.getString("NEW_PRODUCT_NAME"),
+                    rs.getObject("NEW_PRICE", Double.class),
+                    rs.getObject("NEW_QTY", Integer.class)
+            );
+        }
+    }
+}
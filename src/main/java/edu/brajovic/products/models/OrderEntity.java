@@ -1,6 +1,9 @@
 package edu.brajovic.products.models;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -23,6 +26,14 @@ public class OrderEntity {
     @Column("QTY")
     private int quantity;
 
+    // Filled in by the database default on insert and never rewritten.
+    @ReadOnlyProperty
+    @Column("CREATED_AT")
+    private LocalDateTime createdAt;
+
+    @Column("UPDATED_AT")
+    private LocalDateTime updatedAt;
+
     public OrderEntity() {
     }
 
@@ -73,4 +84,20 @@ public class OrderEntity {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
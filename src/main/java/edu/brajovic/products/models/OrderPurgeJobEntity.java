@@ -0,0 +1,158 @@
+package edu.brajovic.products.models;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("ORDER_PURGE_JOBS")
+public class OrderPurgeJobEntity {
+
+    @Id
+    @Column("ID")
+    private int id;
+
+    @Column("PRODUCT_NAME")
+    private String productName;
+
+    @Column("ORDER_NUMBER_FROM")
+    private String orderNumberFrom;
+
+    @Column("ORDER_NUMBER_TO")
+    private String orderNumberTo;
+
+    @Column("STATUS")
+    private String status;
+
+    @Column("MATCHED")
+    private int matched;
+
+    @Column("MARKED")
+    private int marked;
+
+    @Column("PURGED")
+    private int purged;
+
+    @Column("RESTORED")
+    private int restored;
+
+    @Column("MAX_ORDER_ID")
+    private int maxOrderId;
+
+    @Column("MARK_CURSOR")
+    private int markCursor;
+
+    @Column("CREATED_AT")
+    private LocalDateTime createdAt;
+
+    @Column("UPDATED_AT")
+    private LocalDateTime updatedAt;
+
+    public OrderPurgeJobEntity() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getOrderNumberFrom() {
+        return orderNumberFrom;
+    }
+
+    public void setOrderNumberFrom(String orderNumberFrom) {
+        this.orderNumberFrom = orderNumberFrom;
+    }
+
+    public String getOrderNumberTo() {
+        return orderNumberTo;
+    }
+
+    public void setOrderNumberTo(String orderNumberTo) {
+        this.orderNumberTo = orderNumberTo;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+
+    public int getMarked() {
+        return marked;
+    }
+
+    public void setMarked(int marked) {
+        this.marked = marked;
+    }
+
+    public int getPurged() {
+        return purged;
+    }
+
+    public void setPurged(int purged) {
+        this.purged = purged;
+    }
+
+    public int getRestored() {
+        return restored;
+    }
+
+    public void setRestored(int restored) {
+        this.restored = restored;
+    }
+
+    public int getMaxOrderId() {
+        return maxOrderId;
+    }
+
+    public void setMaxOrderId(int maxOrderId) {
+        this.maxOrderId = maxOrderId;
+    }
+
+    public int getMarkCursor() {
+        return markCursor;
+    }
+
+    public void setMarkCursor(int markCursor) {
+        this.markCursor = markCursor;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
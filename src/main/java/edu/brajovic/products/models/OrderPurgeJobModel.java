@@ -0,0 +1,121 @@
+package edu.brajovic.products.models;
+
+import java.time.LocalDateTime;
+
+public class OrderPurgeJobModel {
+
+    private int id;
+    private String productName;
+    private String orderNumberFrom;
+    private String orderNumberTo;
+    private String status;
+    private int matched;
+    private int marked;
+    private int purged;
+    private int restored;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public OrderPurgeJobModel() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getOrderNumberFrom() {
+        return orderNumberFrom;
+    }
+
+    public void setOrderNumberFrom(String orderNumberFrom) {
+        this.orderNumberFrom = orderNumberFrom;
+    }
+
+    public String getOrderNumberTo() {
+        return orderNumberTo;
+    }
+
+    public void setOrderNumberTo(String orderNumberTo) {
+        this.orderNumberTo = orderNumberTo;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+
+    public int getMarked() {
+        return marked;
+    }
+
+    public void setMarked(int marked) {
+        this.marked = marked;
+    }
+
+    public int getPurged() {
+        return purged;
+    }
+
+    public void setPurged(int purged) {
+        this.purged = purged;
+    }
+
+    public int getRestored() {
+        return restored;
+    }
+
+    public void setRestored(int restored) {
+        this.restored = restored;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public boolean isActive() {
+        return "MARKING".equals(status) || "PURGING".equals(status) || "CANCELLING".equals(status);
+    }
+
+    public int getPercentDone() {
+        int total = Math.max(matched, marked);
+        if (total == 0) {
+            return 100;
+        }
+        return (int) Math.min(100, (purged + restored) * 100L / total);
+    }
+}
@@ -0,0 +1,31 @@
+package edu.brajovic.products.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Read-only order row for list pages, mapped straight from the result set.
+ * Component names match OrderModel's properties so templates take either.
+ */
+public record OrderView(int id, String order_number, String product_name, double price, int quantity) {
+
+    public static OrderView of(OrderModel model) {
+        return model == null ? null : new OrderView(model.getId(), model.getOrder_number(),
+                model.getProduct_name(), model.getPrice(), model.getQuantity());
+    }
+
+    public static class Row implements RowMapper<OrderView> {
+        @Override
+        public OrderView mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new OrderView(
+                    rs.getInt("ID"),
+                    rs.getString("ORDER_NUMBER"),
+                    rs.getString("PRODUCT_NAME"),
+                    rs.getDouble("PRICE"),
+                    rs.getInt("QTY")
+            );
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package edu.brajovic.products.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Read-only user row for the admin list. The password hash is never selected.
+ */
+public record UserView(int id, String username, String role, boolean enabled) {
+
+    public static class Row implements RowMapper<UserView> {
+        @Override
+        public UserView mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new UserView(
+                    rs.getInt("ID"),
+                    rs.getString("USERNAME"),
+                    rs.getString("ROLE"),
+                    rs.getBoolean("ENABLED")
+            );
+        }
+    }
+}
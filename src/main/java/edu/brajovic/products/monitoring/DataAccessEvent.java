@@ -0,0 +1,32 @@
+package edu.brajovic.products.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one data service call, so recordings show which service
+ * method the JDBC and allocation samples belong to. For a method returning a
+ * Stream the event lasts until the stream is closed.
+ */
+@Name("edu.brajovic.products.DataAccess")
+@Label("Data Access Call")
+@Category({ "Products", "Data Access" })
+@Description("A call to a data service method")
+public class DataAccessEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Id")
+    @Description("The id argument of getById/deleteById, -1 otherwise")
+    int id = -1;
+
+    @Label("Failed")
+    boolean failed;
+}
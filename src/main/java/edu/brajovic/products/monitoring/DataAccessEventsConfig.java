@@ -0,0 +1,87 @@
+package edu.brajovic.products.monitoring;
+
+import java.lang.reflect.Method;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import edu.brajovic.products.data.DataAccessInterface;
+
+@Configuration
+@ConditionalOnProperty(name = "diagnostics.jfr.data-access-events", havingValue = "true", matchIfMissing = true)
+public class DataAccessEventsConfig {
+
+    /**
+     * Wraps every DataAccessInterface bean in a class-based proxy that emits a
+     * {@link DataAccessEvent} per call to any of its public methods, not just
+     * the interface ones, since list pages use service-specific reads such as
+     * getAllViews() and streamAll(). Costs one isEnabled() check while no
+     * recording is running.
+     */
+    @Bean
+    public static BeanPostProcessor dataAccessEventsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataAccessInterface<?>)) {
+                    return bean;
+                }
+                NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(interceptor(bean));
+                for (Method method : bean.getClass().getMethods()) {
+                    if (method.getDeclaringClass() != Object.class) {
+                        advisor.addMethodName(method.getName());
+                    }
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvisor(advisor);
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+
+    private static MethodInterceptor interceptor(Object bean) {
+        String service = bean.getClass().getSimpleName();
+        return invocation -> {
+            DataAccessEvent event = new DataAccessEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+            String method = invocation.getMethod().getName();
+            Object[] args = invocation.getArguments();
+            event.begin();
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable ex) {
+                commit(event, service, method, args, true);
+                throw ex;
+            }
+            if (result instanceof Stream<?> stream) {
+                // The rows are read after the call returns, so the event runs until the stream is closed.
+                return stream.onClose(() -> commit(event, service, method, args, false));
+            }
+            commit(event, service, method, args, false);
+            return result;
+        };
+    }
+
+    private static void commit(DataAccessEvent event, String service, String method, Object[] args, boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = service;
+            event.method = method;
+            if (method.endsWith("ById") && args.length == 1 && args[0] instanceof Integer id) {
+                event.id = id;
+            }
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package edu.brajovic.products.monitoring;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Starts and stops JDK Flight Recorder recordings on demand and runs the
+ * HotSpot diagnostic commands behind jcmd's GC.class_histogram and
+ * Thread.print. Recordings are written to diagnostics.jfr.dir; only the
+ * newest diagnostics.jfr.max-kept are kept.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingService.class);
+
+    public static final Set<String> PROFILES = Set.of("default", "profile");
+
+    private final Path dir;
+    private final Duration maxDuration;
+    private final int maxKept;
+    // Our recordings by JFR id, oldest first.
+    private final Map<Long, Entry> recordings = new LinkedHashMap<>();
+
+    public JfrRecordingService(@Value("${diagnostics.jfr.dir:data/jfr}") String dir,
+                               @Value("${diagnostics.jfr.max-duration-s:600}") long maxDurationSeconds,
+                               @Value("${diagnostics.jfr.max-kept:5}") int maxKept) {
+        this.dir = Path.of(dir);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxKept = maxKept;
+    }
+
+    public record RecordingInfo(long id, String profile, String trigger, String state, Instant startedAt,
+                                Duration duration, long sizeBytes) {
+    }
+
+    public record Export(Path path, String fileName, boolean temporary) {
+    }
+
+    private record Entry(Recording recording, String profile, String trigger, Path file) {
+    }
+
+    /**
+     * Starts a recording that stops by itself after {@code duration}.
+     */
+    public synchronized RecordingInfo start(String profile, Duration duration, String trigger) throws IOException {
+        if (!PROFILES.contains(profile)) {
+            throw new IllegalArgumentException("Unknown JFR profile: " + profile);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 1 s and " + maxDuration.toSeconds() + " s");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profile);
+        } catch (ParseException ex) {
+            throw new IllegalStateException("Cannot read JFR profile " + profile, ex);
+        }
+        Files.createDirectories(dir);
+        Recording recording = new Recording(configuration);
+        Path file = dir.resolve("products-" + System.currentTimeMillis() + "-" + profile + ".jfr").toAbsolutePath();
+        recording.setName(file.getFileName().toString());
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setDestination(file);
+        recording.start();
+        recordings.put(recording.getId(), new Entry(recording, profile, trigger, file));
+        prune();
+        log.info("Started JFR recording {} ({}, {} s, {})", recording.getId(), profile, duration.toSeconds(), trigger);
+        return info(recordings.get(recording.getId()));
+    }
+
+    public synchronized boolean stop(long id) {
+        Entry entry = recordings.get(id);
+        if (entry == null || entry.recording().getState() != RecordingState.RUNNING) {
+            return false;
+        }
+        // With a destination set, stop() writes the file.
+        entry.recording().stop();
+        return true;
+    }
+
+    public synchronized boolean isRecording() {
+        for (Entry entry : recordings.values()) {
+            RecordingState state = entry.recording().getState();
+            if (state == RecordingState.RUNNING || state == RecordingState.DELAYED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized List<RecordingInfo> recordings() {
+        List<RecordingInfo> infos = new ArrayList<>(recordings.size());
+        for (Entry entry : recordings.values()) {
+            infos.add(0, info(entry));
+        }
+        return infos;
+    }
+
+    /**
+     * The recording as a .jfr file. A running recording is copied as it
+     * stands so far; the caller deletes that copy after sending it.
+     */
+    public synchronized Export export(long id) throws IOException {
+        Entry entry = recordings.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.recording().getState() == RecordingState.RUNNING) {
+            Path snapshot = Files.createTempFile(dir, "snapshot-", ".jfr");
+            entry.recording().dump(snapshot);
+            return new Export(snapshot, entry.file().getFileName().toString(), true);
+        }
+        if (!Files.exists(entry.file())) {
+            return null;
+        }
+        return new Export(entry.file(), entry.file().getFileName().toString(), false);
+    }
+
+    public String classHistogram() {
+        return diagnosticCommand("gcClassHistogram");
+    }
+
+    public String threadDump() {
+        return diagnosticCommand("threadPrint", "-l");
+    }
+
+    private static String diagnosticCommand(String operation, String... args) {
+        try {
+            return (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), operation,
+                    new Object[] { args }, new String[] { String[].class.getName() });
+        } catch (Exception ex) {
+            throw new IllegalStateException("Diagnostic command " + operation + " failed", ex);
+        }
+    }
+
+    // Drops the oldest finished recordings beyond max-kept, files included.
+    private void prune() {
+        int excess = recordings.size() - maxKept;
+        Iterator<Entry> it = recordings.values().iterator();
+        while (excess > 0 && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.recording().getState() == RecordingState.RUNNING) {
+                continue;
+            }
+            entry.recording().close();
+            try {
+                Files.deleteIfExists(entry.file());
+            } catch (IOException ex) {
+                log.warn("Could not delete old recording {}", entry.file(), ex);
+            }
+            it.remove();
+            excess--;
+        }
+    }
+
+    private static RecordingInfo info(Entry entry) {
+        Recording r = entry.recording();
+        long size = r.getSize();
+        if (r.getState() == RecordingState.STOPPED || r.getState() == RecordingState.CLOSED) {
+            try {
+                size = Files.size(entry.file());
+            } catch (IOException ex) {
+                size = 0;
+            }
+        }
+        return new RecordingInfo(r.getId(), entry.profile(), entry.trigger(), r.getState().name(),
+                r.getStartTime(), r.getDuration(), size);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Entry entry : recordings.values()) {
+            entry.recording().close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package edu.brajovic.products.monitoring;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the latency of the last diagnostics.auto.window requests in a
+ * lock-free ring and, when diagnostics.auto.enabled is set, starts a JFR
+ * recording once their p99 crosses diagnostics.auto.p99-threshold-ms. A
+ * trigger empties the window, so the next one needs min-requests new
+ * requests, and it waits diagnostics.auto.cooldown-s before firing again.
+ * Requests to /admin/diagnostics itself are not counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestLatencyMonitor extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLatencyMonitor.class);
+
+    private final JfrRecordingService jfr;
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+
+    @Value("${diagnostics.auto.enabled:false}")
+    private boolean autoEnabled;
+
+    @Value("${diagnostics.auto.p99-threshold-ms:1000}")
+    private long thresholdMillis;
+
+    @Value("${diagnostics.auto.min-requests:100}")
+    private int minRequests;
+
+    @Value("${diagnostics.auto.profile:profile}")
+    private String profile;
+
+    @Value("${diagnostics.auto.duration-s:60}")
+    private long durationSeconds;
+
+    @Value("${diagnostics.auto.cooldown-s:900}")
+    private long cooldownSeconds;
+
+    private volatile long lastTriggerMillis;
+
+    public RequestLatencyMonitor(JfrRecordingService jfr,
+                                 @Value("${diagnostics.auto.window:1000}") int window) {
+        this.jfr = jfr;
+        this.samples = new AtomicLongArray(window);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/admin/diagnostics");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            samples.set((int) (count.getAndIncrement() % samples.length()), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * p99 over the current window in milliseconds, or -1 before the window
+     * holds diagnostics.auto.min-requests samples.
+     */
+    public double p99Millis() {
+        int n = (int) Math.min(count.get(), samples.length());
+        if (n < Math.max(1, minRequests)) {
+            return -1;
+        }
+        long[] copy = new long[n];
+        for (int i = 0; i < n; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        return copy[(int) Math.ceil(n * 0.99) - 1] / 1_000_000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${diagnostics.auto.check-ms:10000}")
+    public void checkThreshold() {
+        if (!autoEnabled || System.currentTimeMillis() - lastTriggerMillis < cooldownSeconds * 1000) {
+            return;
+        }
+        double p99 = p99Millis();
+        if (p99 < thresholdMillis || jfr.isRecording()) {
+            return;
+        }
+        try {
+            String trigger = String.format("auto: p99 %.0f ms > %d ms", p99, thresholdMillis);
+            jfr.start(profile, Duration.ofSeconds(durationSeconds), trigger);
+            lastTriggerMillis = System.currentTimeMillis();
+            // Start the window over; the samples that fired must not fire again after the cooldown.
+            count.set(0);
+            log.warn("Request p99 {} ms crossed {} ms, started a {} s JFR recording", String.format("%.0f", p99),
+                    thresholdMillis, durationSeconds);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not start automatic JFR recording", ex);
+        }
+    }
+}
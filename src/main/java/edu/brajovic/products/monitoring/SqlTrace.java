@@ -0,0 +1,84 @@
+package edu.brajovic.products.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-request SQL counters, kept on the request thread. Statements run
+ * outside a traced request (startup, schedulers) are not counted here but
+ * can still hit the slow log.
+ */
+public final class SqlTrace {
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final int keepSlowest;
+    private final List<StatementTiming> slowest = new ArrayList<>();
+    private int queryCount;
+    private long totalNanos;
+    private long fetchNanos;
+
+    private SqlTrace(int keepSlowest) {
+        this.keepSlowest = keepSlowest;
+    }
+
+    public static SqlTrace begin(int keepSlowest) {
+        SqlTrace trace = new SqlTrace(keepSlowest);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, long nanos) {
+        queryCount++;
+        totalNanos += nanos;
+        if (keepSlowest <= 0) {
+            return;
+        }
+        if (slowest.size() < keepSlowest) {
+            slowest.add(new StatementTiming(sql, nanos));
+            slowest.sort(Comparator.comparingLong(StatementTiming::nanos).reversed());
+        } else if (nanos > slowest.get(slowest.size() - 1).nanos()) {
+            slowest.set(slowest.size() - 1, new StatementTiming(sql, nanos));
+            slowest.sort(Comparator.comparingLong(StatementTiming::nanos).reversed());
+        }
+    }
+
+    /**
+     * Time spent in ResultSet.next(); counted in the total but not as a query.
+     */
+    void recordFetch(long nanos) {
+        totalNanos += nanos;
+        fetchNanos += nanos;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getFetchNanos() {
+        return fetchNanos;
+    }
+
+    public List<StatementTiming> getSlowest() {
+        return slowest;
+    }
+
+    public record StatementTiming(String sql, long nanos) {
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package edu.brajovic.products.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@ConditionalOnProperty(name = "sql.trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfig {
+
+    /**
+     * Swaps the DataSource for a {@link TracingDataSource} as it is created,
+     * so every repository and JdbcTemplate goes through it.
+     */
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    long slowMillis = environment.getProperty("sql.trace.slow-statement-ms", Long.class, 200L);
+                    return new TracingDataSource(dataSource, slowMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
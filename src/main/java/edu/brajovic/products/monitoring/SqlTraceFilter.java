@@ -0,0 +1,72 @@
+package edu.brajovic.products.monitoring;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link SqlTrace} for each request, ahead of Spring Security so
+ * the login lookup is counted too, and files the result by endpoint.
+ * Requests no handler mapped (the login form post, 404s) share one
+ * bucket, so arbitrary URIs cannot grow the registry.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "sql.trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    static final String UNMATCHED = "(unmatched)";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("sql.slow");
+
+    private final SqlTraceRegistry registry;
+    private final long slowRequestMillis;
+    private final int keepSlowest;
+
+    public SqlTraceFilter(SqlTraceRegistry registry,
+                          @Value("${sql.trace.slow-request-ms:1000}") long slowRequestMillis,
+                          @Value("${sql.trace.slowest-per-request:5}") int keepSlowest) {
+        this.registry = registry;
+        this.slowRequestMillis = slowRequestMillis;
+        this.keepSlowest = keepSlowest;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        SqlTrace trace = SqlTrace.begin(keepSlowest);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlTrace.end();
+            if (trace.getQueryCount() > 0) {
+                String endpoint = endpoint(request);
+                registry.record(endpoint, trace);
+
+                long dbMillis = trace.getTotalNanos() / 1_000_000;
+                if (dbMillis >= slowRequestMillis) {
+                    slowLog.warn("Slow request {}: {} queries, {} ms in DB, slowest: {}",
+                            endpoint, trace.getQueryCount(), dbMillis, trace.getSlowest());
+                }
+            }
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? request.getMethod() + " " + pattern : UNMATCHED;
+    }
+}
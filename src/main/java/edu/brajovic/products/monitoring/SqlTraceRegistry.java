@@ -0,0 +1,112 @@
+package edu.brajovic.products.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Running SQL totals per endpoint, fed by {@link SqlTraceFilter} and shown
+ * on the /admin/sql page.
+ */
+@Component
+public class SqlTraceRegistry {
+
+    private final ConcurrentMap<String, EndpointSqlStats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, SqlTrace trace) {
+        endpoints.computeIfAbsent(endpoint, EndpointSqlStats::new).add(trace);
+    }
+
+    /**
+     * Endpoints ordered by total time spent in the database, worst first.
+     */
+    public List<EndpointSqlStats> worstOffenders(int limit) {
+        List<EndpointSqlStats> all = new ArrayList<>(endpoints.values());
+        all.sort(Comparator.comparingLong(EndpointSqlStats::getTotalNanos).reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    public static class EndpointSqlStats {
+        private final String endpoint;
+        private long requests;
+        private long queries;
+        private long totalNanos;
+        private long fetchNanos;
+        private int maxQueries;
+        private long maxRequestNanos;
+        private String slowestSql = "";
+        private long slowestSqlNanos;
+
+        EndpointSqlStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void add(SqlTrace trace) {
+            requests++;
+            queries += trace.getQueryCount();
+            totalNanos += trace.getTotalNanos();
+            fetchNanos += trace.getFetchNanos();
+            maxQueries = Math.max(maxQueries, trace.getQueryCount());
+            maxRequestNanos = Math.max(maxRequestNanos, trace.getTotalNanos());
+            if (!trace.getSlowest().isEmpty()) {
+                SqlTrace.StatementTiming top = trace.getSlowest().get(0);
+                if (top.nanos() > slowestSqlNanos) {
+                    slowestSqlNanos = top.nanos();
+                    slowestSql = top.sql();
+                }
+            }
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public synchronized long getRequests() {
+            return requests;
+        }
+
+        public synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public synchronized double getTotalMillis() {
+            return totalNanos / 1_000_000.0;
+        }
+
+        public synchronized double getFetchMillis() {
+            return fetchNanos / 1_000_000.0;
+        }
+
+        public synchronized double getAvgQueries() {
+            return requests == 0 ? 0 : (double) queries / requests;
+        }
+
+        public synchronized double getAvgMillis() {
+            return requests == 0 ? 0 : totalNanos / 1_000_000.0 / requests;
+        }
+
+        public synchronized int getMaxQueries() {
+            return maxQueries;
+        }
+
+        public synchronized double getMaxRequestMillis() {
+            return maxRequestNanos / 1_000_000.0;
+        }
+
+        public synchronized String getSlowestSql() {
+            return slowestSql;
+        }
+
+        public synchronized double getSlowestSqlMillis() {
+            return slowestSqlNanos / 1_000_000.0;
+        }
+    }
+}
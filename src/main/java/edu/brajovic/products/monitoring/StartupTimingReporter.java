@@ -0,0 +1,90 @@
+package edu.brajovic.products.monitoring;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Logs where startup time goes: the slowest context startup steps once the
+ * application is ready, and the time from JVM launch to the first served
+ * GET /login, which is the number to compare across startup settings.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupTimingReporter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReporter.class);
+
+    private final AtomicBoolean firstLoginServed = new AtomicBoolean();
+    private final int topSteps;
+
+    public StartupTimingReporter(@Value("${startup.report.top-steps:15}") int topSteps) {
+        this.topSteps = topSteps;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        log.info("Application ready {} ms after JVM start", sinceJvmStart());
+
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            List<StartupTimeline.TimelineEvent> events = startup.drainBufferedTimeline().getEvents();
+            StringBuilder report = new StringBuilder("Slowest startup steps:");
+            events.stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(topSteps)
+                    .forEach(e -> report.append(System.lineSeparator())
+                            .append(String.format("  %6d ms  %s%s", e.getDuration().toMillis(),
+                                    e.getStartupStep().getName(), describe(e.getStartupStep()))));
+            log.info(report.toString());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return firstLoginServed.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        chain.doFilter(request, response);
+        if ("GET".equals(request.getMethod()) && "/login".equals(request.getServletPath())
+                && response.getStatus() == 200 && firstLoginServed.compareAndSet(false, true)) {
+            log.info("First /login served {} ms after JVM start", sinceJvmStart());
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return Duration.ofMillis(System.currentTimeMillis()
+                - ManagementFactory.getRuntimeMXBean().getStartTime()).toMillis();
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder tags = new StringBuilder();
+        for (StartupStep.Tag tag : step.getTags()) {
+            tags.append(tags.length() == 0 ? " [" : ", ").append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return tags.length() == 0 ? "" : tags.append(']').toString();
+    }
+}
@@ -0,0 +1,190 @@
+package edu.brajovic.products.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the real DataSource so every statement execution is timed and
+ * attributed to the current {@link SqlTrace}. Statements slower than the
+ * threshold go to the "sql.slow" log with literals and bound values left out.
+ * Row fetching through ResultSet.next() is timed as well, since with cursor
+ * fetch most of a streamed query runs there rather than in execute.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("sql.slow");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private final long slowStatementNanos;
+
+    public TracingDataSource(DataSource target, long slowStatementMillis) {
+        super(target);
+        this.slowStatementNanos = slowStatementMillis * 1_000_000L;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * Prepared statements only ever show "?" for bound values; plain
+     * statements can carry literals, so those are masked too.
+     */
+    static String redact(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(masked).replaceAll("?");
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    private void record(String sql, long nanos) {
+        String redacted = redact(sql);
+        SqlTrace trace = SqlTrace.current();
+        if (trace != null) {
+            trace.record(redacted, nanos);
+        }
+        if (nanos >= slowStatementNanos) {
+            slowLog.warn("Slow statement ({} ms): {}", nanos / 1_000_000, redacted);
+        }
+    }
+
+    private void recordFetch(String sql, long nanos, long rows) {
+        if (nanos >= slowStatementNanos) {
+            slowLog.warn("Slow fetch ({} ms, {} rows): {}", nanos / 1_000_000, rows, redact(sql));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args[0] == Connection.class) {
+                return target;
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+
+            Class<?> type;
+            if (result instanceof CallableStatement) {
+                type = CallableStatement.class;
+            } else if (result instanceof PreparedStatement) {
+                type = PreparedStatement.class;
+            } else if (result instanceof Statement) {
+                type = Statement.class;
+            } else {
+                return result;
+            }
+            String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { type }, new StatementHandler((Statement) result, sql));
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : preparedSql;
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    result = TracingDataSource.invoke(target, method, args);
+                } finally {
+                    record(sql, System.nanoTime() - start);
+                }
+            } else {
+                result = TracingDataSource.invoke(target, method, args);
+            }
+            if (result instanceof ResultSet resultSet && !method.getName().equals("getGeneratedKeys")) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, new ResultSetHandler(resultSet, sql));
+            }
+            return result;
+        }
+    }
+
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private long fetchNanos;
+        private long rows;
+
+        ResultSetHandler(ResultSet target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object more = TracingDataSource.invoke(target, method, args);
+                long nanos = System.nanoTime() - start;
+                fetchNanos += nanos;
+                if (Boolean.TRUE.equals(more)) {
+                    rows++;
+                }
+                SqlTrace trace = SqlTrace.current();
+                if (trace != null) {
+                    trace.recordFetch(nanos);
+                }
+                return more;
+            }
+            if (name.equals("close") && !target.isClosed()) {
+                recordFetch(sql, fetchNanos, rows);
+            }
+            return TracingDataSource.invoke(target, method, args);
+        }
+    }
+}
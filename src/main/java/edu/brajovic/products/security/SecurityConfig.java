@@ -1,27 +1,37 @@
 package edu.brajovic.products.security;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import edu.brajovic.products.session.ExternalSecurityContextRepository;
 
 @Configuration
 public class SecurityConfig {
     private CustomUserDetailsService customUserDetailsService;
+    private ObjectProvider<ExternalSecurityContextRepository> externalSessions;
     
-    public SecurityConfig(CustomUserDetailsService customUserDetailsService) {
+    public SecurityConfig(CustomUserDetailsService customUserDetailsService,
+                          ObjectProvider<ExternalSecurityContextRepository> externalSessions) {
         this.customUserDetailsService = customUserDetailsService;
+        this.externalSessions = externalSessions;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception{
         http
             .authorizeHttpRequests((requests) -> requests
-                .requestMatchers("/", "/login", "/register", "/*.css", "/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico").permitAll()
+                .requestMatchers("/", "/login", "/register", "/ready", "/*.css", "/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico").permitAll()
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
@@ -33,9 +43,28 @@ public class SecurityConfig {
             )
             .logout(logout -> logout.logoutSuccessUrl("/login?logout").permitAll())
             .userDetailsService(customUserDetailsService);
+
+        ExternalSecurityContextRepository sessions = externalSessions.getIfAvailable();
+        if (sessions != null) {
+            useExternalSessions(http, sessions);
+        }
             return http.build();
     }
 
+    // With sessions.store=offheap|jdbc nothing may touch the HttpSession: the login
+    // lives in the session store, the CSRF token in a cookie.
+    private static void useExternalSessions(HttpSecurity http, ExternalSecurityContextRepository sessions) throws Exception {
+        SimpleUrlAuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler("/login?error");
+        failureHandler.setAllowSessionCreation(false);
+
+        http
+            .securityContext(context -> context.securityContextRepository(sessions))
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+            .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+            .formLogin(form -> form.failureHandler(failureHandler));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,82 @@
+package edu.brajovic.products.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Binary form of a logged-in user: a version byte, the username, then the
+ * authorities, with the app's roles and the password factor as single-byte
+ * codes. A typical session is under twenty bytes instead of the kilobytes
+ * Java serialization needs for a SecurityContext. Credentials are never
+ * written.
+ */
+public final class CompactSessionCodec {
+
+    private static final byte VERSION = 1;
+
+    // Position + 1 is the wire code; 0 means the authority follows as a string.
+    private static final List<String> KNOWN_AUTHORITIES = List.of("ROLE_USER", "ROLE_ADMIN", "FACTOR_PASSWORD");
+
+    private CompactSessionCodec() {
+    }
+
+    public static byte[] encode(Authentication authentication) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(authentication.getName());
+            List<String> authorities = new ArrayList<>();
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                authorities.add(authority.getAuthority());
+            }
+            out.writeByte(authorities.size());
+            for (String authority : authorities) {
+                int code = KNOWN_AUTHORITIES.indexOf(authority) + 1;
+                out.writeByte(code);
+                if (code == 0) {
+                    out.writeUTF(authority);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns null for unreadable data or an unknown format version, which
+     * simply logs the user out.
+     */
+    public static Authentication decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            String username = in.readUTF();
+            int count = in.readUnsignedByte();
+            List<GrantedAuthority> authorities = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int code = in.readUnsignedByte();
+                String authority = code == 0 ? in.readUTF() : KNOWN_AUTHORITIES.get(code - 1);
+                authorities.add(new SimpleGrantedAuthority(authority));
+            }
+            User principal = new User(username, "", authorities);
+            principal.eraseCredentials();
+            return UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+        } catch (IOException | IndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package edu.brajovic.products.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Removes expired sessions batch-size at a time, at most
+ * max-batches-per-run batches every sessions.cleanup.interval-ms, so a
+ * backlog after downtime is worked off gradually.
+ */
+public class ExpiredSessionCleaner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredSessionCleaner.class);
+
+    private final SessionStore store;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private long reportedEvictions;
+
+    public ExpiredSessionCleaner(SessionStore store, int batchSize, int maxBatchesPerRun) {
+        this.store = store;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${sessions.cleanup.interval-ms:60000}")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int removed = store.deleteExpired(now, batchSize);
+            total += removed;
+            if (removed < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("Removed {} expired sessions", total);
+        }
+        if (store instanceof OffHeapSessionStore offHeap && offHeap.getEvictions() > reportedEvictions) {
+            long evictions = offHeap.getEvictions();
+            log.warn("Session store was full; {} idle sessions were logged out. Raise sessions.offheap.max-sessions",
+                    evictions - reportedEvictions);
+            reportedEvictions = evictions;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package edu.brajovic.products.session;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the logged-in user in a {@link SessionStore} under a random id
+ * carried in a cookie, instead of in a container HttpSession. Nothing is
+ * created until a login succeeds, so anonymous pages never allocate a
+ * session, and the store is only read when something asks for the
+ * SecurityContext.
+ *
+ * Expiry slides: a session is written back with a fresh expiry at most once
+ * per touch interval, not on every request.
+ */
+public class ExternalSecurityContextRepository implements SecurityContextRepository {
+
+    // The context saved earlier in this request, e.g. by the login filter.
+    private static final String SAVED_CONTEXT = ExternalSecurityContextRepository.class.getName() + ".CONTEXT";
+
+    private final SessionStore store;
+    private final String cookieName;
+    private final long timeoutMillis;
+    private final long touchIntervalMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final SecurityContextHolderStrategy holderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public ExternalSecurityContextRepository(SessionStore store, String cookieName,
+                                             Duration timeout, Duration touchInterval) {
+        this.store = store;
+        this.cookieName = cookieName;
+        this.timeoutMillis = timeout.toMillis();
+        this.touchIntervalMillis = touchInterval.toMillis();
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        Supplier<SecurityContext> loader = () -> readContext(request);
+        return new DeferredSecurityContext() {
+            private SecurityContext context;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    context = loader.get();
+                    if (context == null) {
+                        context = holderStrategy.createEmptyContext();
+                    }
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                return get().getAuthentication() == null;
+            }
+        };
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder holder) {
+        return loadDeferredContext(holder.getRequest()).get();
+    }
+
+    private SecurityContext readContext(HttpServletRequest request) {
+        if (request.getAttribute(SAVED_CONTEXT) instanceof SecurityContext saved) {
+            return saved;
+        }
+        String id = sessionId(request);
+        if (id == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        SessionStore.StoredSession stored = store.load(id, now);
+        if (stored == null) {
+            return null;
+        }
+        Authentication authentication = CompactSessionCodec.decode(stored.data());
+        if (authentication == null) {
+            return null;
+        }
+        if (stored.expiresAt() - now < timeoutMillis - touchIntervalMillis) {
+            // Update-only: a logout since load() must not be undone.
+            if (!store.touch(id, now + timeoutMillis)) {
+                return null;
+            }
+        }
+        SecurityContext context = holderStrategy.createEmptyContext();
+        context.setAuthentication(authentication);
+        return context;
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        String existing = sessionId(request);
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            // Logout, or an explicit clear.
+            request.removeAttribute(SAVED_CONTEXT);
+            if (existing != null) {
+                store.delete(existing);
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+        // Always issue a fresh id on login so a planted cookie cannot be fixated.
+        if (existing != null) {
+            store.delete(existing);
+        }
+        String id = newId();
+        store.save(id, CompactSessionCodec.encode(authentication), System.currentTimeMillis() + timeoutMillis);
+        request.setAttribute(SAVED_CONTEXT, context);
+        writeCookie(request, response, id, Duration.ofMillis(-1));
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        if (request.getAttribute(SAVED_CONTEXT) != null) {
+            return true;
+        }
+        String id = sessionId(request);
+        return id != null && store.load(id, System.currentTimeMillis()) != null;
+    }
+
+    private String sessionId(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // A negative max age is a browser-session cookie; the store enforces the real timeout.
+    private void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+        String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+        ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+                .path(path)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
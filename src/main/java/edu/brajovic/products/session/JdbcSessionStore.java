@@ -0,0 +1,71 @@
+package edu.brajovic.products.session;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Sessions in the USER_SESSIONS table, shared by every instance so a user
+ * can be served by any node and sticky sessions are no longer needed.
+ */
+public class JdbcSessionStore implements SessionStore {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public JdbcSessionStore(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public StoredSession load(String id, long now) {
+        List<StoredSession> rows = jdbc.query(
+                "SELECT DATA, EXPIRES_AT FROM USER_SESSIONS WHERE SESSION_ID = :id AND EXPIRES_AT > :now",
+                new MapSqlParameterSource("id", id).addValue("now", now),
+                (rs, rowNum) -> new StoredSession(rs.getBytes("DATA"), rs.getLong("EXPIRES_AT")));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public void save(String id, byte[] data, long expiresAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", id)
+                .addValue("data", data)
+                .addValue("expiresAt", expiresAt);
+        int updated = jdbc.update("UPDATE USER_SESSIONS SET DATA = :data, EXPIRES_AT = :expiresAt "
+                + "WHERE SESSION_ID = :id", params);
+        if (updated == 0) {
+            jdbc.update("INSERT INTO USER_SESSIONS (SESSION_ID, DATA, EXPIRES_AT) "
+                    + "VALUES (:id, :data, :expiresAt)", params);
+        }
+    }
+
+    @Override
+    public boolean touch(String id, long expiresAt) {
+        return jdbc.update("UPDATE USER_SESSIONS SET EXPIRES_AT = :expiresAt WHERE SESSION_ID = :id",
+                new MapSqlParameterSource("id", id).addValue("expiresAt", expiresAt)) > 0;
+    }
+
+    @Override
+    public void delete(String id) {
+        jdbc.update("DELETE FROM USER_SESSIONS WHERE SESSION_ID = :id", new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public int deleteExpired(long now, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("now", now).addValue("limit", limit);
+        List<String> ids = jdbc.queryForList("SELECT SESSION_ID FROM USER_SESSIONS WHERE EXPIRES_AT <= :now "
+                + "ORDER BY EXPIRES_AT LIMIT :limit", params, String.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Re-check the expiry so a session touched in the meantime survives.
+        return jdbc.update("DELETE FROM USER_SESSIONS WHERE SESSION_ID IN (:ids) AND EXPIRES_AT <= :now",
+                params.addValue("ids", ids));
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbc.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM USER_SESSIONS", Integer.class);
+        return count == null ? 0 : count;
+    }
+}
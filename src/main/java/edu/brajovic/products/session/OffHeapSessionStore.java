@@ -0,0 +1,300 @@
+package edu.brajovic.products.session;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sessions in direct ByteBuffers outside the Java heap. The arena is carved
+ * into fixed-size slots: [expiresAt long][id length byte][data length short]
+ * [id bytes][payload]. The id lookup is an open-addressed hash table of slot
+ * numbers in a second direct buffer, probed linearly and compared against
+ * the id bytes in the slot. On the heap there is only the free-slot stack,
+ * an int per slot allocated up front, so the heap does not grow with the
+ * number of logged-in users.
+ */
+public class OffHeapSessionStore implements SessionStore {
+
+    private static final int HEADER_BYTES = Long.BYTES + Byte.BYTES + Short.BYTES;
+    private static final int ID_LENGTH_OFFSET = Long.BYTES;
+    private static final int DATA_LENGTH_OFFSET = Long.BYTES + Byte.BYTES;
+    private static final int MAX_ID_BYTES = Byte.MAX_VALUE;
+
+    private final ByteBuffer arena;
+    private final int slotBytes;
+    private final int maxSessions;
+    // Slot number + 1 per bucket, 0 for an empty bucket; at most half full.
+    private final ByteBuffer index;
+    private final int indexMask;
+    private final int[] freeSlots;
+    private int freeCount;
+    private int cleanupCursor;
+    private long evictions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OffHeapSessionStore(int maxSessions, int slotBytes) {
+        if (slotBytes <= HEADER_BYTES + 1) {
+            throw new IllegalArgumentException("slotBytes must be larger than " + (HEADER_BYTES + 1));
+        }
+        this.arena = ByteBuffer.allocateDirect(Math.multiplyExact(maxSessions, slotBytes));
+        this.slotBytes = slotBytes;
+        this.maxSessions = maxSessions;
+        int buckets = Integer.highestOneBit(Math.max(2, maxSessions) * 2 - 1) << 1;
+        this.index = ByteBuffer.allocateDirect(Math.multiplyExact(buckets, Integer.BYTES));
+        this.indexMask = buckets - 1;
+        this.freeSlots = new int[maxSessions];
+        // Hand out low slots first.
+        for (int i = 0; i < maxSessions; i++) {
+            freeSlots[i] = maxSessions - 1 - i;
+        }
+        this.freeCount = maxSessions;
+    }
+
+    @Override
+    public StoredSession load(String id, long now) {
+        byte[] key = key(id);
+        if (key == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            int offset = slot * slotBytes;
+            long expiresAt = arena.getLong(offset);
+            if (expiresAt <= now) {
+                return null;
+            }
+            byte[] data = new byte[arena.getShort(offset + DATA_LENGTH_OFFSET)];
+            arena.get(offset + HEADER_BYTES + key.length, data);
+            return new StoredSession(data, expiresAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(String id, byte[] data, long expiresAt) {
+        byte[] key = key(id);
+        if (key == null) {
+            throw new IllegalArgumentException("Session id must be 1 to " + MAX_ID_BYTES + " bytes");
+        }
+        if (key.length + data.length > slotBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Session of " + data.length + " bytes with a " + key.length
+                    + "-byte id does not fit a " + slotBytes + "-byte slot; raise sessions.offheap.slot-bytes");
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = find(key);
+            if (slot < 0) {
+                if (freeCount == 0 && deleteExpiredLocked(System.currentTimeMillis(), maxSessions) == 0) {
+                    evictLeastRecentlyUsed();
+                }
+                slot = freeSlots[--freeCount];
+                int offset = slot * slotBytes;
+                arena.put(offset + ID_LENGTH_OFFSET, (byte) key.length);
+                arena.put(offset + HEADER_BYTES, key);
+                insertIntoIndex(slot, hash(key));
+            }
+            int offset = slot * slotBytes;
+            arena.putLong(offset, expiresAt);
+            arena.putShort(offset + DATA_LENGTH_OFFSET, (short) data.length);
+            arena.put(offset + HEADER_BYTES + key.length, data);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean touch(String id, long expiresAt) {
+        byte[] key = key(id);
+        if (key == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = find(key);
+            if (slot < 0) {
+                return false;
+            }
+            arena.putLong(slot * slotBytes, expiresAt);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        byte[] key = key(id);
+        if (key == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = find(key);
+            if (slot >= 0) {
+                free(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteExpired(long now, int limit) {
+        lock.writeLock().lock();
+        try {
+            return deleteExpiredLocked(now, limit);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Scans at most one full lap of the slots, resuming where the last call stopped.
+    private int deleteExpiredLocked(long now, int limit) {
+        int removed = 0;
+        for (int scanned = 0; scanned < maxSessions && removed < limit; scanned++) {
+            int slot = cleanupCursor;
+            cleanupCursor = (cleanupCursor + 1) % maxSessions;
+            if (inUse(slot) && arena.getLong(slot * slotBytes) <= now) {
+                free(slot);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // A full store drops the session that expires first. Expiry slides with use,
+    // so that is the one idle the longest; its user simply has to log in again.
+    private void evictLeastRecentlyUsed() {
+        int oldest = 0;
+        for (int slot = 1; slot < maxSessions; slot++) {
+            if (arena.getLong(slot * slotBytes) < arena.getLong(oldest * slotBytes)) {
+                oldest = slot;
+            }
+        }
+        free(oldest);
+        evictions++;
+    }
+
+    private void free(int slot) {
+        removeFromIndex(slot);
+        int offset = slot * slotBytes;
+        arena.putLong(offset, 0L);
+        arena.put(offset + ID_LENGTH_OFFSET, (byte) 0);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private boolean inUse(int slot) {
+        return arena.get(slot * slotBytes + ID_LENGTH_OFFSET) != 0;
+    }
+
+    private int find(byte[] key) {
+        for (int bucket = hash(key) & indexMask; ; bucket = (bucket + 1) & indexMask) {
+            int entry = index.getInt(bucket * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (idEquals(entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void insertIntoIndex(int slot, int hash) {
+        int bucket = hash & indexMask;
+        while (index.getInt(bucket * Integer.BYTES) != 0) {
+            bucket = (bucket + 1) & indexMask;
+        }
+        index.putInt(bucket * Integer.BYTES, slot + 1);
+    }
+
+    // Backward-shift deletion, so lookups never need tombstones.
+    private void removeFromIndex(int slot) {
+        int hole = storedHash(slot) & indexMask;
+        while (index.getInt(hole * Integer.BYTES) != slot + 1) {
+            hole = (hole + 1) & indexMask;
+        }
+        for (int bucket = (hole + 1) & indexMask; ; bucket = (bucket + 1) & indexMask) {
+            int entry = index.getInt(bucket * Integer.BYTES);
+            if (entry == 0) {
+                break;
+            }
+            int home = storedHash(entry - 1) & indexMask;
+            boolean reachable = hole <= bucket ? hole < home && home <= bucket : hole < home || home <= bucket;
+            if (!reachable) {
+                index.putInt(hole * Integer.BYTES, entry);
+                hole = bucket;
+            }
+        }
+        index.putInt(hole * Integer.BYTES, 0);
+    }
+
+    private boolean idEquals(int slot, byte[] key) {
+        int offset = slot * slotBytes;
+        if (arena.get(offset + ID_LENGTH_OFFSET) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (arena.get(offset + HEADER_BYTES + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int storedHash(int slot) {
+        int offset = slot * slotBytes;
+        int h = 1;
+        for (int i = 0, n = arena.get(offset + ID_LENGTH_OFFSET); i < n; i++) {
+            h = 31 * h + arena.get(offset + HEADER_BYTES + i);
+        }
+        return spread(h);
+    }
+
+    private static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        return spread(h);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // Cookie values are client input, so anything that could not have been issued is simply unknown.
+    private static byte[] key(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_ID_BYTES) {
+            return null;
+        }
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        return key.length > MAX_ID_BYTES ? null : key;
+    }
+
+    /**
+     * Live sessions dropped because the store was full
+     */
+    public long getEvictions() {
+        lock.readLock().lock();
+        try {
+            return evictions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return maxSessions - freeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.brajovic.products.session;
+
+/**
+ * Backend for externalized login sessions. Stores opaque, already-encoded
+ * session bytes under a random session id together with an absolute expiry
+ * (epoch millis). Implementations must be thread-safe.
+ */
+public interface SessionStore {
+
+    /**
+     * Returns the session, or null if it is unknown or expired at {@code now}.
+     */
+    StoredSession load(String id, long now);
+
+    void save(String id, byte[] data, long expiresAt);
+
+    /**
+     * Moves the expiry of an existing session and returns whether it was
+     * found. Never creates one, so a touch racing a logout cannot bring the
+     * deleted session back.
+     */
+    boolean touch(String id, long expiresAt);
+
+    void delete(String id);
+
+    /**
+     * Removes at most {@code limit} sessions that expired before {@code now}
+     * and returns how many were removed.
+     */
+    int deleteExpired(long now, int limit);
+
+    int size();
+
+    record StoredSession(byte[] data, long expiresAt) {
+    }
+}
@@ -0,0 +1,49 @@
+package edu.brajovic.products.session;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Picks the session backend from sessions.store: offheap (default), jdbc,
+ * or container to keep ordinary Tomcat HttpSessions, in which case none of
+ * these beans exist and SecurityConfig leaves session handling alone.
+ */
+@Configuration
+@ConditionalOnExpression("'${sessions.store:offheap}' != 'container'")
+public class SessionStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sessions.store", havingValue = "offheap", matchIfMissing = true)
+    public SessionStore offHeapSessionStore(@Value("${sessions.offheap.max-sessions:100000}") int maxSessions,
+                                            @Value("${sessions.offheap.slot-bytes:128}") int slotBytes) {
+        return new OffHeapSessionStore(maxSessions, slotBytes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sessions.store", havingValue = "jdbc")
+    public SessionStore jdbcSessionStore(NamedParameterJdbcTemplate jdbc) {
+        return new JdbcSessionStore(jdbc);
+    }
+
+    @Bean
+    public ExternalSecurityContextRepository externalSecurityContextRepository(SessionStore store,
+            @Value("${sessions.cookie-name:PSESSION}") String cookieName,
+            @Value("${sessions.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${sessions.touch-interval-seconds:60}") long touchIntervalSeconds) {
+        return new ExternalSecurityContextRepository(store, cookieName,
+                Duration.ofMinutes(timeoutMinutes), Duration.ofSeconds(touchIntervalSeconds));
+    }
+
+    @Bean
+    public ExpiredSessionCleaner expiredSessionCleaner(SessionStore store,
+            @Value("${sessions.cleanup.batch-size:1000}") int batchSize,
+            @Value("${sessions.cleanup.max-batches-per-run:20}") int maxBatchesPerRun) {
+        return new ExpiredSessionCleaner(store, batchSize, maxBatchesPerRun);
+    }
+}
@@ -0,0 +1,149 @@
+package edu.brajovic.products.startup;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.MappingMatch;
+
+/**
+ * Bare request/response objects for dispatching GETs through the
+ * DispatcherServlet off the servlet container, as the warm-up does. Only
+ * the calls dispatch and a Thymeleaf view make are answered; everything
+ * else returns a neutral default.
+ */
+final class SyntheticServletRequests {
+
+    private SyntheticServletRequests() {
+    }
+
+    // The DispatcherServlet's default "/" mapping.
+    private static final HttpServletMapping DEFAULT_MAPPING = new HttpServletMapping() {
+        @Override
+        public String getMatchValue() {
+            return "";
+        }
+
+        @Override
+        public String getPattern() {
+            return "/";
+        }
+
+        @Override
+        public String getServletName() {
+            return "dispatcherServlet";
+        }
+
+        @Override
+        public MappingMatch getMappingMatch() {
+            return MappingMatch.DEFAULT;
+        }
+    };
+
+    static HttpServletRequest get(ServletContext servletContext, String path) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(SyntheticServletRequests.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getServletContext": return servletContext;
+                        case "getMethod": return "GET";
+                        case "getDispatcherType": return DispatcherType.REQUEST;
+                        case "getHttpServletMapping": return DEFAULT_MAPPING;
+                        case "getRequestURI":
+                        case "getServletPath": return path;
+                        case "getRequestURL": return new StringBuffer("http://localhost" + path);
+                        case "getProtocol": return "HTTP/1.1";
+                        case "getRemoteAddr": return "127.0.0.1";
+                        case "getDateHeader": return -1L;
+                        case "getIntHeader": return -1;
+                        case "getContextPath":
+                        case "getPathInfo": return "";
+                        case "getScheme": return "http";
+                        case "getServerName": return "localhost";
+                        case "getServerPort": return 80;
+                        case "getCharacterEncoding": return "UTF-8";
+                        case "getLocale": return Locale.getDefault();
+                        case "getAttribute": return attributes.get((String) args[0]);
+                        case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+                        case "removeAttribute": attributes.remove((String) args[0]); return null;
+                        case "getAttributeNames": return Collections.enumeration(attributes.keySet());
+                        case "getParameterMap": return Collections.emptyMap();
+                        case "getParameterNames":
+                        case "getHeaderNames":
+                        case "getHeaders":
+                        case "getLocales": return Collections.emptyEnumeration();
+                        case "getCookies": return new jakarta.servlet.http.Cookie[0];
+                        case "getSession": return null;
+                        case "toString": return "SyntheticRequest[" + path + "]";
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * A response that writes the body to {@code out}; getStatus() reports
+     * whatever status the dispatch set.
+     */
+    static HttpServletResponse rendering(Writer out) {
+        PrintWriter writer = new PrintWriter(out);
+        ServletOutputStream discard = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        int[] status = { 200 };
+        String[] contentType = { null };
+        return (HttpServletResponse) Proxy.newProxyInstance(SyntheticServletRequests.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWriter": return writer;
+                        case "getOutputStream": return discard;
+                        case "encodeURL":
+                        case "encodeRedirectURL": return args[0];
+                        case "getCharacterEncoding": return "UTF-8";
+                        case "getLocale": return Locale.getDefault();
+                        case "setStatus":
+                        case "sendError": status[0] = (Integer) args[0]; return null;
+                        case "sendRedirect": status[0] = 302; return null;
+                        case "getStatus": return status[0];
+                        case "setContentType": contentType[0] = (String) args[0]; return null;
+                        case "getContentType": return contentType[0];
+                        case "getHeaderNames": return Collections.emptyList();
+                        case "getHeaders": return Collections.emptyList();
+                        case "toString": return "SyntheticResponse";
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+}
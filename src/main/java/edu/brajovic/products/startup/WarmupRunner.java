@@ -0,0 +1,231 @@
+package edu.brajovic.products.startup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.models.Mapper;
+import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.models.OrderView;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Drives the hot request path before the application reports ready. Each
+ * iteration dispatches GET /login and /register through the real
+ * DispatcherServlet and renders the order list, show and edit views from
+ * synthetic rows; BCrypt runs once up front. Requests are in-process and
+ * skip the servlet filters, with a synthetic logged-in user.
+ *
+ * By default nothing touches the ORDERS table, so a scale-out does not
+ * start with every new node reading it. With warmup.db-reads=true the show
+ * and edit pages are dispatched for a fixed page of warmup.rows existing
+ * orders, read by id. The full /orders list is never dispatched.
+ *
+ * Dispatch needs an initialised DispatcherServlet, so warm-up goes with
+ * spring.mvc.servlet.load-on-startup=1. Spring Boot only publishes
+ * ReadinessState.ACCEPTING_TRAFFIC after all runners have returned, so
+ * /ready keeps answering 503 until this finishes.
+ *
+ * Stops after warmup.iterations, once per-iteration latency has settled
+ * (two consecutive windows within warmup.stable-percent of each other),
+ * or when warmup.max-duration-ms runs out, whichever comes first.
+ */
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final ViewResolver viewResolver;
+    private final ServletContext servletContext;
+    private final PasswordEncoder passwordEncoder;
+    private final OrdersDataService ordersDataService;
+    private final DispatcherServlet dispatcherServlet;
+
+    @Value("${warmup.iterations:2000}")
+    private int maxIterations;
+
+    @Value("${warmup.min-iterations:200}")
+    private int minIterations;
+
+    @Value("${warmup.window:50}")
+    private int window;
+
+    @Value("${warmup.stable-percent:5}")
+    private double stablePercent;
+
+    @Value("${warmup.max-duration-ms:60000}")
+    private long maxDurationMillis;
+
+    @Value("${warmup.rows:50}")
+    private int rows;
+
+    @Value("${warmup.bcrypt-iterations:20}")
+    private int bcryptIterations;
+
+    @Value("${warmup.db-reads:false}")
+    private boolean dbReads;
+
+    private volatile int requests;
+    private volatile int failedRequests;
+
+    public WarmupRunner(@Qualifier("thymeleafViewResolver") ViewResolver viewResolver,
+                        ServletContext servletContext,
+                        PasswordEncoder passwordEncoder,
+                        OrdersDataService ordersDataService,
+                        DispatcherServlet dispatcherServlet) {
+        this.viewResolver = viewResolver;
+        this.servletContext = servletContext;
+        this.passwordEncoder = passwordEncoder;
+        this.ordersDataService = ordersDataService;
+        this.dispatcherServlet = dispatcherServlet;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMillis * 1_000_000L;
+
+        String hash = passwordEncoder.encode("warmup-password");
+        for (int i = 0; i < bcryptIterations && System.nanoTime() < deadline; i++) {
+            passwordEncoder.matches("warmup-password", hash);
+        }
+
+        if (dispatcherServlet.getServletConfig() == null) {
+            log.warn("Warm-up skipped: DispatcherServlet is not initialised yet, "
+                    + "set spring.mvc.servlet.load-on-startup=1");
+            return;
+        }
+        List<Integer> orderIds = dbReads ? ordersDataService.getActiveIds(rows) : List.of();
+
+        // The navbar's sec:authorize checks need someone to be logged in.
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "warmup", null, AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")));
+        int iterations = 0;
+        double firstWindowMs = 0;
+        double previousWindowMs = 0;
+        double currentWindowMs = 0;
+        try {
+            long windowNanos = 0;
+            while (iterations < maxIterations && System.nanoTime() < deadline) {
+                long t0 = System.nanoTime();
+                iteration(iterations, orderIds);
+                windowNanos += System.nanoTime() - t0;
+                iterations++;
+
+                if (iterations % window == 0) {
+                    currentWindowMs = windowNanos / 1_000_000.0 / window;
+                    windowNanos = 0;
+                    if (firstWindowMs == 0) {
+                        firstWindowMs = currentWindowMs;
+                    }
+                    if (iterations >= minIterations && previousWindowMs > 0
+                            && Math.abs(currentWindowMs - previousWindowMs) * 100 / previousWindowMs <= stablePercent) {
+                        break;
+                    }
+                    previousWindowMs = currentWindowMs;
+                }
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        log.info("Warm-up finished: {} iterations ({} requests, {} failed) in {} ms, "
+                + "avg iteration {} ms at start -> {} ms at end",
+                iterations, requests, failedRequests, (System.nanoTime() - start) / 1_000_000,
+                String.format("%.3f", firstWindowMs), String.format("%.3f", currentWindowMs));
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getFailedRequests() {
+        return failedRequests;
+    }
+
+    private void iteration(int n, List<Integer> orderIds) throws Exception {
+        dispatch("/login");
+        dispatch("/register");
+        renderSyntheticList(n);
+        if (!orderIds.isEmpty()) {
+            int id = orderIds.get(n % orderIds.size());
+            dispatch("/orders/showOrders/" + id);
+            dispatch("/orders/editOrder/" + id);
+        } else {
+            renderSyntheticOrder(n);
+        }
+    }
+
+    private void dispatch(String path) {
+        HttpServletResponse response = SyntheticServletRequests.rendering(new StringWriter(16 * 1024));
+        String failure;
+        try {
+            dispatcherServlet.service(SyntheticServletRequests.get(servletContext, path), response);
+            requests++;
+            if (response.getStatus() < 400) {
+                return;
+            }
+            failure = "status " + response.getStatus();
+        } catch (ServletException | IOException | RuntimeException ex) {
+            requests++;
+            failure = ex.toString();
+        }
+        // Once per run is enough to see what is wrong.
+        if (failedRequests++ == 0) {
+            log.warn("Warm-up request GET {} failed: {}", path, failure);
+        }
+    }
+
+    private void renderSyntheticList(int n) throws Exception {
+        List<OrderView> orders = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            orders.add(syntheticRow(n, i));
+        }
+        render("allOrders", "/orders", Map.of("title", "All Orders", "orders", orders));
+    }
+
+    private void renderSyntheticOrder(int n) throws Exception {
+        OrderView row = syntheticRow(n, n % Math.max(1, rows));
+        OrderModel order = Mapper.toModel(Mapper.toEntity(new OrderModel(row.id(), row.order_number(),
+                row.product_name(), row.price(), row.quantity())));
+
+        render("showOrders", "/orders/showOrders/" + order.getId(), Map.of("title", "Order Details", "order", order));
+        render("editOrder", "/orders/editOrder/" + order.getId(), Map.of("title", "Edit Order", "order", order));
+    }
+
+    private OrderView syntheticRow(int n, int i) {
+        return new OrderView(n * rows + i + 1, "WARM-" + i, "Warm-up product " + (i % 7), 1.25 * i, i);
+    }
+
+    private void render(String viewName, String path, Map<String, ?> model) throws Exception {
+        View view = viewResolver.resolveViewName(viewName, Locale.getDefault());
+        if (view == null) {
+            return;
+        }
+        StringWriter out = new StringWriter(16 * 1024);
+        view.render(model, SyntheticServletRequests.get(servletContext, path), SyntheticServletRequests.rendering(out));
+    }
+}
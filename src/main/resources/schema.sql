@@ -7,3 +7,94 @@ CREATE TABLE IF NOT EXISTS users (
   PRIMARY KEY (id),
   UNIQUE KEY uk_users_username (username)
 );
+
+CREATE TABLE IF NOT EXISTS orders (
+  id INT NOT NULL AUTO_INCREMENT,
+  order_number VARCHAR(50) NOT NULL,
+  product_name VARCHAR(255) NOT NULL,
+  price DOUBLE NOT NULL,
+  qty INT NOT NULL,
+  deleted BOOLEAN NOT NULL DEFAULT FALSE,
+  purge_job_id INT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  KEY idx_orders_purge_job (purge_job_id),
+  KEY idx_orders_updated_at (updated_at)
+);
+
+-- Existing ORDERS tables predate soft delete; these fail harmlessly once applied.
+ALTER TABLE orders ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE orders ADD COLUMN purge_job_id INT NULL;
+CREATE INDEX idx_orders_purge_job ON orders (purge_job_id);
+-- Rows that predate these two columns get the migration time in both, so they only
+-- become archivable orders.archive.max-age-days after the migration (see
+-- application.properties for a one-off backfill).
+ALTER TABLE orders ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE orders ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE INDEX idx_orders_updated_at ON orders (updated_at);
+
+-- Cold copy of ORDERS. Rows keep their original id.
+CREATE TABLE IF NOT EXISTS orders_archive (
+  id INT NOT NULL,
+  order_number VARCHAR(50) NOT NULL,
+  product_name VARCHAR(255) NOT NULL,
+  price DOUBLE NOT NULL,
+  qty INT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  updated_at TIMESTAMP NOT NULL,
+  archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS order_purge_jobs (
+  id INT NOT NULL AUTO_INCREMENT,
+  product_name VARCHAR(255) NULL,
+  order_number_from VARCHAR(50) NULL,
+  order_number_to VARCHAR(50) NULL,
+  status VARCHAR(20) NOT NULL,
+  matched INT NOT NULL DEFAULT 0,
+  marked INT NOT NULL DEFAULT 0,
+  purged INT NOT NULL DEFAULT 0,
+  restored INT NOT NULL DEFAULT 0,
+  max_order_id INT NOT NULL DEFAULT 0,
+  mark_cursor INT NOT NULL DEFAULT 0,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id)
+);
+
+-- max_order_id freezes a job's match set at start; mark_cursor is the last id marked so far.
+ALTER TABLE order_purge_jobs ADD COLUMN max_order_id INT NOT NULL DEFAULT 0;
+ALTER TABLE order_purge_jobs ADD COLUMN mark_cursor INT NOT NULL DEFAULT 0;
+
+-- Login sessions for sessions.store=jdbc. DATA is the compact binary encoding.
+CREATE TABLE IF NOT EXISTS user_sessions (
+  session_id VARCHAR(64) NOT NULL,
+  data VARBINARY(1024) NOT NULL,
+  expires_at BIGINT NOT NULL,
+  PRIMARY KEY (session_id),
+  KEY idx_user_sessions_expires_at (expires_at)
+);
+
+-- Append-only history of order edits and deletes; the application only inserts.
+-- old_* is the row before the change, new_* after it (NULL for deletes).
+CREATE TABLE IF NOT EXISTS order_audit (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  event_id CHAR(36) NOT NULL,
+  order_id INT NOT NULL,
+  action VARCHAR(10) NOT NULL,
+  username VARCHAR(100) NOT NULL,
+  changed_at TIMESTAMP(3) NOT NULL,
+  old_order_number VARCHAR(50) NULL,
+  old_product_name VARCHAR(255) NULL,
+  old_price DOUBLE NULL,
+  old_qty INT NULL,
+  new_order_number VARCHAR(50) NULL,
+  new_product_name VARCHAR(255) NULL,
+  new_price DOUBLE NULL,
+  new_qty INT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_order_audit_event (event_id),
+  KEY idx_order_audit_order (order_id, id)
+);
@@ -0,0 +1,100 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.data.UserDataService;
+
+/**
+ * Bytes allocated per list read, old entity -> model path against the
+ * read-only projections. Numbers are logged so runs can be compared.
+ * The seeded rows are removed after each test, since other test classes
+ * share the database.
+ */
+@SpringBootTest
+class AllocationBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationBenchmarkTests.class);
+
+    private static final int ORDERS = 2_000;
+    private static final int USERS = 500;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private OrdersDataService ordersDataService;
+
+    @Autowired
+    private UserDataService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> orderRows = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orderRows.add(new Object[] { "ALLOC-" + i, "Product " + (i % 40), 9.99 + i, i % 17 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ORDERS (ORDER_NUMBER, PRODUCT_NAME, PRICE, QTY) VALUES (?, ?, ?, ?)", orderRows);
+
+        List<Object[]> userRows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            userRows.add(new Object[] { "alloc-user-" + i, "$2a$10$abcdefghijklmnopqrstuuN9qo8uLOickgx2ZMRZoMyeIjZbN2/1lWz", "USER", true });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO USERS (USERNAME, PASSWORD, ROLE, ENABLED) VALUES (?, ?, ?, ?)", userRows);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM ORDERS WHERE ORDER_NUMBER LIKE 'ALLOC-%'");
+        jdbcTemplate.update("DELETE FROM USERS WHERE USERNAME LIKE 'alloc-user-%'");
+    }
+
+    @Test
+    void orderListProjectionAllocatesLess() {
+        long models = bytesPerRead(() -> ordersDataService.getAll());
+        long views = bytesPerRead(() -> ordersDataService.getAllViews());
+
+        log.info("Order list: entity+model {} B/read, view {} B/read ({}% less)",
+                models, views, 100 * (models - views) / models);
+        assertTrue(views < models);
+    }
+
+    @Test
+    void userAdminListProjectionAllocatesLess() {
+        long models = bytesPerRead(() -> userService.getAll());
+        long views = bytesPerRead(() -> userService.getAllViews());
+
+        log.info("User admin list: entity+model {} B/read, view {} B/read ({}% less)",
+                models, views, 100 * (models - views) / models);
+        assertTrue(views < models);
+    }
+
+    private static long bytesPerRead(Supplier<?> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < ROUNDS; i++) {
+            read.get();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ROUNDS; i++) {
+            read.get();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / ROUNDS;
+    }
+}
@@ -0,0 +1,137 @@
+package edu.brajovic.products;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.monitoring.JfrRecordingService;
+import edu.brajovic.products.monitoring.RequestLatencyMonitor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// Automatic recordings fire on any window of five requests, but only when a test runs the check.
+@SpringBootTest(properties = { "diagnostics.auto.enabled=true", "diagnostics.auto.p99-threshold-ms=0",
+        "diagnostics.auto.window=10", "diagnostics.auto.min-requests=5", "diagnostics.auto.cooldown-s=0",
+        "diagnostics.auto.check-ms=3600000" })
+@AutoConfigureMockMvc
+class DiagnosticsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JfrRecordingService jfr;
+
+    @Autowired
+    private OrdersDataService ordersDataService;
+
+    @Autowired
+    private RequestLatencyMonitor latencyMonitor;
+
+    /**
+     * Diagnostics are for admins only
+     */
+    @Test
+    void diagnosticsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/admin/diagnostics").with(user("user").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/admin/diagnostics/threads").with(user("user").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * A recording started from the page captures data access events, including
+     * the list pages' reads, and can be downloaded
+     */
+    @Test
+    void recordingCapturesDataAccessEvents(@TempDir Path dir) throws Exception {
+        mockMvc.perform(post("/admin/diagnostics/start").param("profile", "default").param("durationSeconds", "60")
+                .with(user("admin").roles("ADMIN")).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+        JfrRecordingService.RecordingInfo recording = jfr.recordings().get(0);
+
+        for (int i = 0; i < 5; i++) {
+            ordersDataService.getById(-1);
+        }
+        mockMvc.perform(get("/orders").with(user("admin").roles("ADMIN"))).andExpect(status().isOk());
+        mockMvc.perform(get("/orders/stream").with(user("admin").roles("ADMIN"))).andExpect(status().isOk());
+
+        mockMvc.perform(post("/admin/diagnostics/stop").param("id", String.valueOf(recording.id()))
+                .with(user("admin").roles("ADMIN")).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+        byte[] body = mockMvc.perform(get("/admin/diagnostics/recordings/{id}", recording.id())
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Path file = dir.resolve("download.jfr");
+        Files.write(file, body);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("edu.brajovic.products.DataAccess"))
+                .toList();
+        assertTrue(events.stream().anyMatch(event ->
+                "getById".equals(event.getString("method")) && event.getInt("id") == -1));
+        assertTrue(events.stream().anyMatch(event -> "getAllViews".equals(event.getString("method"))));
+        assertTrue(events.stream().anyMatch(event -> "streamAll".equals(event.getString("method"))));
+    }
+
+    /**
+     * Class histogram and thread dump come back as plain text
+     */
+    @Test
+    void histogramAndThreadDump() throws Exception {
+        mockMvc.perform(get("/admin/diagnostics/histogram").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("#instances")));
+        mockMvc.perform(get("/admin/diagnostics/threads").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Full thread dump")));
+        mockMvc.perform(get("/admin/diagnostics").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * A slow window starts one recording; the next needs a window of new requests
+     */
+    @Test
+    void autoRecordingStartsOncePerWindow() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/login"));
+        }
+        latencyMonitor.checkThreshold();
+        JfrRecordingService.RecordingInfo first = jfr.recordings().get(0);
+        assertTrue(first.trigger().startsWith("auto:"), first.trigger());
+        assertEquals(-1, latencyMonitor.p99Millis());
+        jfr.stop(first.id());
+
+        latencyMonitor.checkThreshold();
+        assertEquals(first.id(), jfr.recordings().get(0).id(), "the window that fired is not reused");
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/login"));
+        }
+        latencyMonitor.checkThreshold();
+        JfrRecordingService.RecordingInfo second = jfr.recordings().get(0);
+        assertNotEquals(first.id(), second.id());
+        jfr.stop(second.id());
+    }
+}
@@ -0,0 +1,187 @@
+package edu.brajovic.products;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import edu.brajovic.products.audit.OrderAuditEvent;
+import edu.brajovic.products.audit.OrderAuditTrail;
+import edu.brajovic.products.audit.OrderAuditWal;
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.models.OrderAuditView;
+import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.models.OrderView;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderAuditTests {
+
+    @Autowired
+    private OrdersDataService ordersDataService;
+
+    @Autowired
+    private OrderAuditTrail orderAuditTrail;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Edits and deletes end up in the history with before and after images
+     */
+    @Test
+    void editsAndDeletesAreAudited() throws Exception {
+        OrderModel order = ordersDataService.create(new OrderModel(0, "AUDIT-1", "Audited", 10.0, 2));
+        order.setPrice(12.5);
+        order.setQuantity(3);
+        ordersDataService.update(order);
+        ordersDataService.deleteById(order.getId());
+        orderAuditTrail.flush();
+
+        List<OrderAuditView> history = orderAuditTrail.history(order.getId(), 0, 20);
+        assertEquals(2, history.size());
+        OrderAuditView delete = history.get(0);
+        OrderAuditView update = history.get(1);
+        assertEquals("DELETE", delete.action());
+        assertEquals(12.5, delete.oldPrice());
+        assertNull(delete.newPrice());
+        assertEquals("UPDATE", update.action());
+        assertEquals(2, update.oldQuantity());
+        assertEquals(3, update.newQuantity());
+
+        mockMvc.perform(get("/admin/audit").param("orderId", String.valueOf(order.getId()))
+                .with(org.springframework.security.test.web.servlet.request
+                        .SecurityMockMvcRequestPostProcessors.user("admin")
+                        .roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("2 changes for order " + order.getId())));
+    }
+
+    /**
+     * The write-ahead log survives a reopen and ignores a record torn by a crash
+     */
+    @Test
+    void walReplaysIntactRecordsOnly(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.wal");
+        OrderView before = new OrderView(7, "WAL-7", "Logged", 3.0, 1);
+        try (OrderAuditWal wal = new OrderAuditWal(file, true)) {
+            for (int i = 0; i < 3; i++) {
+                wal.append(new OrderAuditEvent("event-" + i, OrderAuditEvent.DELETE, 7, "admin", i, before, null));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 40, 1, 2, 3 }));
+        }
+
+        try (OrderAuditWal wal = new OrderAuditWal(file, false)) {
+            List<OrderAuditEvent> events = wal.readAll();
+            assertEquals(3, events.size());
+            assertEquals("event-2", events.get(2).eventId());
+            assertEquals(before, events.get(0).before());
+            assertNull(events.get(0).after());
+
+            wal.committed(2);
+            assertEquals(3, wal.readAll().size());
+            wal.committed(3);
+        }
+        assertEquals(0, Files.size(file));
+    }
+
+    /**
+     * A batch that failed after writing some rows is retried without
+     * inserting those rows again
+     */
+    @Test
+    void retryAfterPartialBatchSkipsStoredEvents(@TempDir Path dir) throws Exception {
+        AtomicBoolean failNextBatch = new AtomicBoolean(true);
+        NamedParameterJdbcTemplate flaky = new NamedParameterJdbcTemplate(jdbc.getJdbcTemplate()) {
+            @Override
+            public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+                if (failNextBatch.getAndSet(false)) {
+                    super.batchUpdate(sql, Arrays.copyOf(batchArgs, batchArgs.length / 2));
+                    throw new TransientDataAccessResourceException("Connection lost mid-batch");
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+        Path file = dir.resolve("audit.wal");
+        OrderAuditTrail trail = new OrderAuditTrail(flaky, true, file.toString(), false, 16, 16);
+        trail.recover();
+        // No such order; the audit table has no foreign key.
+        OrderView before = new OrderView(-35, "PARTIAL-1", "Partial", 1.0, 1);
+        for (int i = 0; i < 4; i++) {
+            trail.recordDelete(before);
+        }
+
+        assertEquals(0, trail.flush());
+        assertEquals(2, trail.countHistory(before.id()));
+        assertEquals(4, trail.flush());
+        assertEquals(4, trail.countHistory(before.id()));
+
+        trail.shutdown();
+        assertEquals(0, Files.size(file));
+        jdbc.update("DELETE FROM ORDER_AUDIT WHERE ORDER_ID = :orderId",
+                new MapSqlParameterSource("orderId", before.id()));
+    }
+
+    /**
+     * With the buffer full and the database down, recording neither throws
+     * nor loses the event
+     */
+    @Test
+    void fullBufferWithDatabaseDownKeepsEvents(@TempDir Path dir) throws Exception {
+        AtomicBoolean down = new AtomicBoolean(true);
+        NamedParameterJdbcTemplate failing = new NamedParameterJdbcTemplate(jdbc.getJdbcTemplate()) {
+            @Override
+            public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+                if (down.get()) {
+                    throw new TransientDataAccessResourceException("Database unavailable");
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+        Path file = dir.resolve("audit.wal");
+        OrderAuditTrail trail = new OrderAuditTrail(failing, true, file.toString(), false, 1, 16);
+        trail.recover();
+        OrderView before = new OrderView(-36, "DOWN-1", "Down", 1.0, 1);
+        // The third record finds the buffer full and the flush failing, so it writes itself and fails too.
+        for (int i = 0; i < 3; i++) {
+            trail.recordDelete(before);
+        }
+        assertEquals(0, trail.countHistory(before.id()));
+
+        down.set(false);
+        assertEquals(3, trail.flush());
+        assertEquals(3, trail.countHistory(before.id()));
+
+        trail.shutdown();
+        assertEquals(0, Files.size(file));
+        jdbc.update("DELETE FROM ORDER_AUDIT WHERE ORDER_ID = :orderId",
+                new MapSqlParameterSource("orderId", before.id()));
+    }
+}
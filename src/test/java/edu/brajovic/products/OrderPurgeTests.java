@@ -0,0 +1,112 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import edu.brajovic.products.audit.OrderAuditTrail;
+import edu.brajovic.products.data.OrderPurgeService;
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.models.OrderAuditView;
+import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.models.OrderPurgeJobModel;
+
+// One chunk of two rows per run, so a job can be caught part way through.
+@SpringBootTest(properties = { "orders.purge.chunk-size=2", "orders.purge.max-chunks-per-run=1",
+        "orders.purge.pause-ms=0", "orders.purge.interval-ms=3600000" })
+class OrderPurgeTests {
+
+    @Autowired
+    private OrderPurgeService orderPurgeService;
+
+    @Autowired
+    private OrdersDataService ordersDataService;
+
+    @Autowired
+    private OrderAuditTrail orderAuditTrail;
+
+    @Test
+    void cancelRestoresMarkedOrders() {
+        List<OrderModel> orders = create("Cancelled purge", 3);
+
+        OrderPurgeJobModel job = orderPurgeService.startJob("Cancelled purge", null, null);
+        orderPurgeService.runPurger();
+        assertEquals(2, orderPurgeService.getJob(job.getId()).getMarked());
+        assertNull(ordersDataService.getById(orders.get(0).getId()));
+        assertNotNull(ordersDataService.getById(orders.get(2).getId()));
+
+        assertTrue(orderPurgeService.cancel(job.getId()));
+        assertEquals(OrderPurgeService.CANCELLING, orderPurgeService.getJob(job.getId()).getStatus());
+        runUntilFinished(job);
+
+        OrderPurgeJobModel cancelled = orderPurgeService.getJob(job.getId());
+        assertEquals(OrderPurgeService.CANCELLED, cancelled.getStatus());
+        assertEquals(2, cancelled.getRestored());
+        assertEquals(0, cancelled.getPurged());
+        for (OrderModel order : orders) {
+            assertNotNull(ordersDataService.getById(order.getId()));
+        }
+    }
+
+    @Test
+    void ordersCreatedAfterTheJobStartsAreKept() {
+        List<OrderModel> orders = create("Frozen purge", 3);
+
+        OrderPurgeJobModel job = orderPurgeService.startJob("Frozen purge", null, null);
+        assertEquals(3, job.getMatched());
+        OrderModel late = ordersDataService.create(new OrderModel(0, "FROZEN-LATE", "Frozen purge", 1.0, 1));
+        runUntilFinished(job);
+
+        OrderPurgeJobModel done = orderPurgeService.getJob(job.getId());
+        assertEquals(OrderPurgeService.DONE, done.getStatus());
+        assertEquals(3, done.getMarked());
+        assertEquals(3, done.getPurged());
+        for (OrderModel order : orders) {
+            assertNull(ordersDataService.getById(order.getId()));
+        }
+        assertNotNull(ordersDataService.getById(late.getId()));
+    }
+
+    /**
+     * Each purged order gets a DELETE event with its last values, under the job
+     */
+    @Test
+    void purgedOrdersAreAudited() {
+        List<OrderModel> orders = create("Audited purge", 3);
+
+        OrderPurgeJobModel job = orderPurgeService.startJob("Audited purge", null, null);
+        runUntilFinished(job);
+        orderAuditTrail.flush();
+
+        assertEquals(OrderPurgeService.DONE, orderPurgeService.getJob(job.getId()).getStatus());
+        for (OrderModel order : orders) {
+            List<OrderAuditView> history = orderAuditTrail.history(order.getId(), 0, 20);
+            assertEquals(1, history.size());
+            assertEquals("DELETE", history.get(0).action());
+            assertEquals("purge-job-" + job.getId(), history.get(0).username());
+            assertEquals(order.getOrder_number(), history.get(0).oldOrderNumber());
+        }
+    }
+
+    private List<OrderModel> create(String product, int count) {
+        List<OrderModel> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(ordersDataService.create(new OrderModel(0, product + "-" + i, product, 1.0, 1)));
+        }
+        return orders;
+    }
+
+    private void runUntilFinished(OrderPurgeJobModel job) {
+        for (int run = 0; run < 20 && orderPurgeService.getJob(job.getId()).isActive(); run++) {
+            orderPurgeService.runPurger();
+        }
+    }
+}
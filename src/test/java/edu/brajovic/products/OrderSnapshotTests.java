@@ -0,0 +1,125 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import edu.brajovic.products.data.OrderSnapshot;
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.models.OrderModel;
+
+@SpringBootTest(properties = { "orders.snapshot.enabled=true", "orders.snapshot.split-threshold=64" })
+class OrderSnapshotTests {
+
+    @Autowired
+    private OrderSnapshot orderSnapshot;
+
+    @Autowired
+    private OrdersDataService ordersDataService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aggregatesMatchTheDatabase() {
+        for (int i = 0; i < 1_000; i++) {
+            ordersDataService.create(new OrderModel(0, "SNAP-" + i, "Snap product " + (i % 5), 1.5 + i % 100, i % 20));
+        }
+        assertMatchesDatabase();
+
+        // A full reload must agree with the incrementally maintained columns.
+        orderSnapshot.reload();
+        assertMatchesDatabase();
+    }
+
+    @Test
+    void updatesAndDeletesAreApplied() {
+        OrderModel order = ordersDataService.create(new OrderModel(0, "SNAP-UPD", "Snap edited", 10.0, 3));
+        OrderSnapshot.Filter edited = OrderSnapshot.filter().products(List.of("Snap edited"));
+        assertEquals(1, orderSnapshot.aggregate(edited).getCount());
+        assertEquals(30.0, orderSnapshot.aggregate(edited).getRevenue(), 0.001);
+
+        order.setPrice(12.25);
+        order.setQuantity(4);
+        ordersDataService.update(order);
+        assertEquals(49.0, orderSnapshot.aggregate(edited).getRevenue(), 0.001);
+        assertEquals(1, orderSnapshot.aggregate(OrderSnapshot.filter()
+                .products(List.of("Snap edited")).priceBetween(12.0, 13.0).quantityBetween(4, 4)).getCount());
+
+        ordersDataService.deleteById(order.getId());
+        assertEquals(0, orderSnapshot.aggregate(edited).getCount());
+    }
+
+    /**
+     * A reload that fails part way keeps the previous columns and the changes made meanwhile
+     */
+    @Test
+    void failedReloadKeepsThePreviousSnapshot() {
+        ordersDataService.create(new OrderModel(0, "SNAP-FAIL", "Snap reload", 2.0, 1));
+        AtomicBoolean failing = new AtomicBoolean();
+        JdbcTemplate flaky = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+                if (!failing.get()) {
+                    super.query(psc, rch);
+                    return;
+                }
+                int[] rows = { 0 };
+                super.query(psc, (RowCallbackHandler) rs -> {
+                    if (++rows[0] > 1) {
+                        throw new TransientDataAccessResourceException("Connection lost mid-reload");
+                    }
+                    rch.processRow(rs);
+                });
+            }
+        };
+        OrderSnapshot snapshot = new OrderSnapshot(flaky, 64);
+        snapshot.reload();
+        int loaded = snapshot.size();
+        assertTrue(loaded > 1, "rows: " + loaded);
+
+        failing.set(true);
+        snapshot.reload();
+        assertEquals(loaded, snapshot.size());
+        assertEquals(1, snapshot.aggregate(OrderSnapshot.filter().products(List.of("Snap reload"))).getCount());
+
+        // Changes after the failed reload still apply, also to ids below the largest one.
+        snapshot.onSaved(-2, "Snap reload", 3.0, 2);
+        snapshot.onSaved(-1, "Snap reload", 4.0, 1);
+        snapshot.onDeleted(-2);
+        assertEquals(2, snapshot.aggregate(OrderSnapshot.filter().products(List.of("Snap reload"))).getCount());
+        snapshot.onSaved(-2, "Snap reload", 3.0, 2);
+        assertEquals(10.0, snapshot.aggregate(OrderSnapshot.filter()
+                .products(List.of("Snap reload")).priceBetween(3.0, 4.0)).getRevenue(), 0.001);
+        assertEquals(loaded + 2, snapshot.size());
+    }
+
+    private void assertMatchesDatabase() {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT COUNT(*) AS N, COALESCE(SUM(QTY), 0) AS Q "
+                + "FROM ORDERS WHERE DELETED = FALSE AND PRICE BETWEEN 20 AND 60 AND QTY >= 5");
+        OrderSnapshot.Stats stats = orderSnapshot.aggregate(OrderSnapshot.filter()
+                .priceBetween(20.0, 60.0).quantityBetween(5, null));
+        assertEquals(((Number) row.get("N")).longValue(), stats.getCount());
+        assertEquals(((Number) row.get("Q")).longValue(), stats.getTotalQuantity());
+
+        Map<String, OrderSnapshot.Stats> byProduct = orderSnapshot.aggregateByProduct(OrderSnapshot.filter()
+                .products(List.of("Snap product 0", "Snap product 3")));
+        assertEquals(2, byProduct.size());
+        assertFalse(byProduct.containsKey("Snap product 1"));
+        Integer product0 = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ORDERS WHERE DELETED = FALSE AND PRODUCT_NAME = 'Snap product 0'", Integer.class);
+        assertEquals(product0.longValue(), byProduct.get("Snap product 0").getCount());
+    }
+}
@@ -0,0 +1,46 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jdbc.core.dialect.JdbcDialect;
+import org.springframework.data.jdbc.core.dialect.JdbcMySqlDialect;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The prod profile must start with no database reachable, as the CDS
+ * training run does. Port 1 refuses every connection.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:mysql://127.0.0.1:1/ordersdb",
+        "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+        "warmup.enabled=false" })
+@ActiveProfiles("prod")
+class ProdProfileTests {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void startsWithoutADatabase() {
+        assertInstanceOf(JdbcMySqlDialect.class, context.getBean(JdbcDialect.class));
+        assertEquals("never", environment.getProperty("spring.sql.init.mode"));
+    }
+
+    @Test
+    void beansAreCreatedOnFirstUse() {
+        assertEquals(Boolean.TRUE, environment.getProperty("spring.main.lazy-initialization", Boolean.class));
+        assertFalse(context.getBeanFactory().containsSingleton("userAdminController"));
+        context.getBean("userAdminController");
+        assertTrue(context.getBeanFactory().containsSingleton("userAdminController"));
+    }
+}
@@ -4,24 +4,44 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 
 
+import edu.brajovic.products.data.OrderArchiveService;
+import edu.brajovic.products.data.OrderPurgeService;
+import edu.brajovic.products.data.OrdersDataService;
 import edu.brajovic.products.data.UserDataService;
 import edu.brajovic.products.data.UsersRepository;
+import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.models.OrderPurgeJobModel;
 import edu.brajovic.products.models.UserEntity;
 import edu.brajovic.products.models.UserModel;
+import edu.brajovic.products.monitoring.SqlTraceRegistry;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -36,9 +56,30 @@ class ProductsApplicationTests {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private OrdersDataService ordersDataService;
+
+    @Autowired
+    private OrderPurgeService orderPurgeService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private SqlTraceRegistry sqlTraceRegistry;
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.stream.chunk-size}")
+    private int streamChunkSize;
+
     /**
      * ✅ findByUsername returns users correctly
      */
@@ -98,4 +139,138 @@ class ProductsApplicationTests {
                 .andExpect(status().isOk());
     }
 
+    /**
+     * Streamed order list renders every row from the cursor, flushing once per chunk
+     */
+    @Test
+    void streamedOrderListRendersAllRows() throws Exception {
+        int rows = streamChunkSize * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            ordersDataService.create(new OrderModel(0, "STREAM-" + i, "Widget", 1.5, i));
+        }
+
+        AtomicInteger flushes = new AtomicInteger();
+        MockMvc counting = MockMvcBuilders.webAppContextSetup(context)
+                .addFilter((request, response, chain) -> chain.doFilter(request,
+                        new HttpServletResponseWrapper((HttpServletResponse) response) {
+                            @Override
+                            public void flushBuffer() throws IOException {
+                                flushes.incrementAndGet();
+                                super.flushBuffer();
+                            }
+                        }))
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+        try {
+            counting.perform(get("/orders/stream")
+                    .with(org.springframework.security.test.web.servlet.request
+                            .SecurityMockMvcRequestPostProcessors.user("user")
+                            .roles("USER")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("STREAM-0<")))
+                    .andExpect(content().string(containsString("STREAM-" + (rows - 1) + "<")));
+            assertTrue(flushes.get() >= 2, "flushed " + flushes.get() + " times");
+        } finally {
+            jdbcTemplate.update("DELETE FROM ORDERS WHERE ORDER_NUMBER LIKE 'STREAM-%'");
+        }
+    }
+
+    /**
+     * SQL tracing attributes queries to the endpoint that issued them
+     */
+    @Test
+    void sqlTraceRecordsQueriesPerEndpoint() throws Exception {
+        mockMvc.perform(get("/orders")
+                .with(org.springframework.security.test.web.servlet.request
+                        .SecurityMockMvcRequestPostProcessors.user("user")
+                        .roles("USER")))
+                .andExpect(status().isOk());
+
+        assertTrue(sqlTraceRegistry.worstOffenders(100).stream()
+                .anyMatch(stats -> stats.getEndpoint().equals("GET /orders") && stats.getAvgQueries() >= 1));
+    }
+
+    /**
+     * Row fetching on the streamed list counts as DB time
+     */
+    @Test
+    void sqlTraceCountsRowFetching() throws Exception {
+        mockMvc.perform(get("/orders/stream")
+                .with(org.springframework.security.test.web.servlet.request
+                        .SecurityMockMvcRequestPostProcessors.user("user")
+                        .roles("USER")))
+                .andExpect(status().isOk());
+
+        assertTrue(sqlTraceRegistry.worstOffenders(100).stream()
+                .anyMatch(stats -> stats.getEndpoint().equals("GET /orders/stream") && stats.getFetchMillis() > 0));
+    }
+
+    /**
+     * Requests without a handler share one SQL trace bucket instead of one per URI
+     */
+    @Test
+    void sqlTraceFilesUnmatchedRequestsTogether() throws Exception {
+        mockMvc.perform(formLogin("/login?probe=1").user("nobody").password("wrong"));
+        mockMvc.perform(formLogin("/login?probe=2").user("nobody").password("wrong"));
+
+        assertTrue(sqlTraceRegistry.worstOffenders(100).stream()
+                .anyMatch(stats -> stats.getEndpoint().equals("(unmatched)")));
+        assertTrue(sqlTraceRegistry.worstOffenders(100).stream()
+                .noneMatch(stats -> stats.getEndpoint().contains("/login")));
+    }
+
+    /**
+     * Bulk delete hides matching orders and the purger removes them
+     */
+    @Test
+    void bulkDeletePurgesMatchingOrders() {
+        OrderModel kept = ordersDataService.create(new OrderModel(0, "KEEP-1", "Keeper", 2.0, 1));
+        OrderModel doomed = ordersDataService.create(new OrderModel(0, "PURGE-1", "Purgeable", 2.0, 1));
+        ordersDataService.create(new OrderModel(0, "PURGE-2", "Purgeable", 2.0, 1));
+
+        OrderPurgeJobModel job = orderPurgeService.startJob("Purgeable", null, null);
+        assertEquals(2, job.getMatched());
+
+        orderPurgeService.runPurger();
+
+        assertEquals(OrderPurgeService.DONE, orderPurgeService.getJob(job.getId()).getStatus());
+        assertEquals(2, orderPurgeService.getJob(job.getId()).getPurged());
+        assertEquals(null, ordersDataService.getById(doomed.getId()));
+        assertNotNull(ordersDataService.getById(kept.getId()));
+    }
+
+    /**
+     * Archived orders are still found by id and can be edited
+     */
+    @Test
+    void archivedOrdersFallBackOnGetById() {
+        OrderModel order = ordersDataService.create(new OrderModel(0, "ARCHIVE-1", "Old Stock", 3.0, 2));
+
+        orderArchiveService.archiveOlderThan(LocalDateTime.now().plusDays(1));
+
+        OrderModel archived = ordersDataService.getById(order.getId());
+        assertNotNull(archived);
+        assertEquals("ARCHIVE-1", archived.getOrder_number());
+
+        archived.setQuantity(7);
+        ordersDataService.update(archived);
+        assertEquals(7, ordersDataService.getById(order.getId()).getQuantity());
+    }
+
+    /**
+     * Soft-deleted orders are left for the purger, never archived
+     */
+    @Test
+    void archiverSkipsSoftDeletedOrders() {
+        OrderModel order = ordersDataService.create(new OrderModel(0, "ARCHIVE-DEL", "Old Stock", 3.0, 2));
+        jdbcTemplate.update("UPDATE ORDERS SET DELETED = TRUE WHERE ID = ?", order.getId());
+
+        orderArchiveService.archiveOlderThan(LocalDateTime.now().plusDays(1));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ORDERS WHERE ID = ?",
+                Integer.class, order.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ORDERS_ARCHIVE WHERE ID = ?",
+                Integer.class, order.getId()));
+    }
+
 }
@@ -0,0 +1,213 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import edu.brajovic.products.data.UsersRepository;
+import edu.brajovic.products.models.UserEntity;
+import edu.brajovic.products.session.CompactSessionCodec;
+import edu.brajovic.products.session.JdbcSessionStore;
+import edu.brajovic.products.session.OffHeapSessionStore;
+import edu.brajovic.products.session.SessionStore;
+import jakarta.servlet.http.Cookie;
+
+// csrf() swaps the CSRF repository for a session-backed test one for the rest of the
+// context, so this class gets its own context and checks anonymous pages first.
+@SpringBootTest(properties = "sessions.store=offheap")
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SessionStoreTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Anonymous pages never create a session of either kind; the CSRF cookie is
+     * only set by pages that render a form
+     */
+    @Test
+    @Order(1)
+    void anonymousPagesDoNotCreateSessions() throws Exception {
+        for (String page : List.of("/", "/login")) {
+            MvcResult result = mockMvc.perform(get(page)).andExpect(status().isOk()).andReturn();
+            assertNull(result.getRequest().getSession(false), page);
+            assertNull(result.getResponse().getCookie("PSESSION"), page);
+            if (page.equals("/")) {
+                assertNull(result.getResponse().getCookie("XSRF-TOKEN"), page);
+            } else {
+                assertNotNull(result.getResponse().getCookie("XSRF-TOKEN"), page);
+            }
+        }
+    }
+
+    /**
+     * Login stores a compact session that authenticates later requests; logout removes it
+     */
+    @Test
+    void loginUsesExternalSessionUntilLogout() throws Exception {
+        if (usersRepository.findByUsername("session-user") == null) {
+            UserEntity user = new UserEntity();
+            user.setUsername("session-user");
+            user.setPassword(passwordEncoder.encode("sessionpass"));
+            user.setRole("ROLE_USER");
+            user.setEnabled(true);
+            usersRepository.save(user);
+        }
+
+        MvcResult login = mockMvc.perform(formLogin("/login").user("session-user").password("sessionpass"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        assertNull(login.getRequest().getSession(false));
+        Cookie session = login.getResponse().getCookie("PSESSION");
+        assertNotNull(session);
+
+        SessionStore.StoredSession stored = sessionStore.load(session.getValue(), System.currentTimeMillis());
+        assertNotNull(stored);
+        assertTrue(stored.data().length < 32, "session is " + stored.data().length + " bytes");
+
+        mockMvc.perform(get("/orders").cookie(session)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/logout").cookie(session).with(csrf())).andExpect(status().is3xxRedirection());
+        assertNull(sessionStore.load(session.getValue(), System.currentTimeMillis()));
+        mockMvc.perform(get("/orders").cookie(session)).andExpect(status().is3xxRedirection());
+    }
+
+    /**
+     * Both backends round-trip sessions and remove expired ones in batches
+     */
+    @Test
+    void storesExpireSessionsInBatches() {
+        for (SessionStore store : List.of(new OffHeapSessionStore(16, 64), new JdbcSessionStore(jdbc))) {
+            long now = System.currentTimeMillis();
+            Authentication admin = CompactSessionCodec.decode(CompactSessionCodec.encode(
+                    org.springframework.security.authentication.UsernamePasswordAuthenticationToken.authenticated(
+                            "batch-admin", null, org.springframework.security.core.authority.AuthorityUtils
+                                    .createAuthorityList("ROLE_ADMIN", "ROLE_AUDITOR"))));
+            assertEquals("batch-admin", admin.getName());
+            assertEquals(2, admin.getAuthorities().size());
+
+            for (int i = 0; i < 5; i++) {
+                store.save("expired-" + i, CompactSessionCodec.encode(admin), now - 1_000);
+            }
+            store.save("live", CompactSessionCodec.encode(admin), now + 60_000);
+
+            assertNull(store.load("expired-0", now));
+            assertEquals("batch-admin", CompactSessionCodec.decode(store.load("live", now).data()).getName());
+            assertEquals(2, store.deleteExpired(now, 2));
+            assertEquals(3, store.deleteExpired(now, 10));
+            assertEquals(0, store.deleteExpired(now, 10));
+            assertNotNull(store.load("live", now));
+            store.delete("live");
+        }
+    }
+
+    /**
+     * Touch only moves the expiry of a live session and never recreates a deleted one
+     */
+    @Test
+    void touchDoesNotRecreateDeletedSessions() {
+        for (SessionStore store : List.of(new OffHeapSessionStore(16, 64), new JdbcSessionStore(jdbc))) {
+            long now = System.currentTimeMillis();
+            store.save("touched", new byte[] { 1 }, now + 1_000);
+            assertTrue(store.touch("touched", now + 60_000));
+            assertEquals(now + 60_000, store.load("touched", now).expiresAt());
+
+            store.delete("touched");
+            assertFalse(store.touch("touched", now + 120_000));
+            assertNull(store.load("touched", now));
+        }
+    }
+
+    /**
+     * The off-heap id index agrees with a plain map through many saves and deletes
+     */
+    @Test
+    void offHeapIndexSurvivesChurn() {
+        OffHeapSessionStore store = new OffHeapSessionStore(64, 64);
+        Map<String, Byte> expected = new HashMap<>();
+        Random random = new Random(34);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 20_000; i++) {
+            String id = "session-" + random.nextInt(96);
+            if (random.nextBoolean() && (expected.size() < 64 || expected.containsKey(id))) {
+                byte value = (byte) i;
+                store.save(id, new byte[] { value }, expiresAt);
+                expected.put(id, value);
+            } else {
+                store.delete(id);
+                expected.remove(id);
+            }
+        }
+        assertEquals(expected.size(), store.size());
+        for (int n = 0; n < 96; n++) {
+            String id = "session-" + n;
+            SessionStore.StoredSession stored = store.load(id, 0);
+            if (expected.containsKey(id)) {
+                assertEquals(expected.get(id), stored.data()[0], id);
+            } else {
+                assertNull(stored, id);
+            }
+        }
+        assertEquals(0, store.getEvictions());
+    }
+
+    /**
+     * A full off-heap store makes room by dropping the longest-idle session
+     */
+    @Test
+    void fullOffHeapStoreEvictsLongestIdleSession() {
+        OffHeapSessionStore store = new OffHeapSessionStore(3, 32);
+        long now = System.currentTimeMillis();
+        byte[] data = { 1, 2, 3 };
+        store.save("middle", data, now + 20_000);
+        store.save("idle", data, now + 10_000);
+        store.save("recent", data, now + 30_000);
+
+        store.save("new", data, now + 40_000);
+
+        assertEquals(3, store.size());
+        assertEquals(1, store.getEvictions());
+        assertNull(store.load("idle", now));
+        for (String id : List.of("middle", "recent", "new")) {
+            assertNotNull(store.load(id, now), id);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import edu.brajovic.products.monitoring.StartupTimingReporter;
+
+@ExtendWith(OutputCaptureExtension.class)
+class StartupTimingTests {
+
+    @Test
+    void reportsTheSlowestStartupSteps(CapturedOutput output) throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        startup.startRecording();
+        StartupStep fast = startup.start("test.fast");
+        fast.end();
+        StartupStep slow = startup.start("test.slow").tag("bean", "slowBean");
+        Thread.sleep(20);
+        slow.end();
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setApplicationStartup(startup);
+        new StartupTimingReporter(1).onReady(
+                new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ZERO));
+
+        assertTrue(output.getOut().contains("Application ready"));
+        assertTrue(output.getOut().contains("test.slow [bean=slowBean]"));
+        assertFalse(output.getOut().contains("test.fast"), "only the top step is listed");
+    }
+
+    @Test
+    void logsOnlyTheFirstSuccessfulLogin(CapturedOutput output) throws Exception {
+        StartupTimingReporter reporter = new StartupTimingReporter(15);
+
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(500);
+        reporter.doFilter(login(), failed, new MockFilterChain());
+        reporter.doFilter(login(), new MockHttpServletResponse(), new MockFilterChain());
+        reporter.doFilter(login(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, output.getOut().split("First /login served", -1).length - 1);
+    }
+
+    private static MockHttpServletRequest login() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+        request.setServletPath("/login");
+        return request;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.brajovic.products;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.web.servlet.MockMvc;
+
+import edu.brajovic.products.data.OrdersDataService;
+import edu.brajovic.products.models.OrderModel;
+import edu.brajovic.products.startup.WarmupRunner;
+
+// A real server, so the container initialises the DispatcherServlet as in production.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = { "warmup.enabled=true", "warmup.iterations=20", "warmup.min-iterations=10",
+        "warmup.window=5", "warmup.bcrypt-iterations=1", "warmup.db-reads=true",
+        "spring.mvc.servlet.load-on-startup=1" })
+@AutoConfigureMockMvc
+class WarmupTests {
+
+    @TestConfiguration
+    static class Startup {
+
+        static final AtomicReference<ReadinessState> seen = new AtomicReference<>();
+
+        // Runs before the warm-up, so it has an order to show and edit.
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        ApplicationRunner seedOrder(OrdersDataService orders) {
+            return args -> orders.create(new OrderModel(0, "WARMUP-1", "Warm-up seed", 1.0, 1));
+        }
+
+        // Runners all finish before startup does, so this sees what /ready answered meanwhile.
+        @Bean
+        ApplicationRunner readinessProbe(ApplicationAvailability availability) {
+            return args -> seen.set(availability.getReadinessState());
+        }
+    }
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void warmupDispatchesThePagesWithoutErrors() {
+        // At least min-iterations of login, register, show and edit.
+        assertTrue(warmupRunner.getRequests() >= 10 * 4, "requests: " + warmupRunner.getRequests());
+        assertEquals(0, warmupRunner.getFailedRequests());
+    }
+
+    @Test
+    void readyOnlyAfterWarmup() throws Exception {
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, Startup.seen.get());
+        mockMvc.perform(get("/ready")).andExpect(status().isOk());
+
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            mockMvc.perform(get("/ready")).andExpect(status().isServiceUnavailable());
+        } finally {
+            AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+}
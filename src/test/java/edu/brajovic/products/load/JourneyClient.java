@@ -0,0 +1,119 @@
+package edu.brajovic.products.load;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One simulated browser: its own cookie jar, no redirect following, and
+ * every request timed into the shared {@link LatencyRecorder} under a step
+ * name.
+ */
+final class JourneyClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final CookieManager cookies = new CookieManager();
+    private final HttpClient http;
+    private volatile boolean recording;
+
+    JourneyClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    void newBrowserSession() {
+        cookies.getCookieStore().removeAll();
+    }
+
+    HttpResponse<String> get(String step, String path) throws IOException, InterruptedException {
+        return send(step, HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT).GET().build(), 200);
+    }
+
+    /**
+     * Posts a form with the CSRF token taken from {@code formPage} and expects a redirect.
+     */
+    HttpResponse<String> post(String step, String path, String formPage, Map<String, String> fields)
+            throws IOException, InterruptedException {
+        Map<String, String> form = new LinkedHashMap<>(fields);
+        form.put("_csrf", csrfToken(formPage));
+        StringJoiner body = new StringJoiner("&");
+        form.forEach((k, v) -> body.add(URLEncoder.encode(k, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(v, StandardCharsets.UTF_8)));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return send(step, request, 302);
+    }
+
+    private HttpResponse<String> send(String step, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            if (recording) {
+                recorder.record(step, System.nanoTime() - start, false);
+            }
+            throw ex;
+        }
+        boolean ok = response.statusCode() == expectedStatus && !isErrorRedirect(response);
+        if (recording) {
+            recorder.record(step, System.nanoTime() - start, ok);
+        }
+        if (!ok) {
+            throw new IOException(step + ": " + request.method() + " " + request.uri().getPath()
+                    + " returned " + response.statusCode() + response.headers().firstValue("Location")
+                            .map(location -> " -> " + location).orElse(""));
+        }
+        return response;
+    }
+
+    // A failed login or register still answers 302, to ...?error.
+    private static boolean isErrorRedirect(HttpResponse<String> response) {
+        return response.headers().firstValue("Location").map(l -> l.contains("error")).orElse(false);
+    }
+
+    static String csrfToken(String html) throws IOException {
+        Matcher m = CSRF.matcher(html);
+        if (!m.find()) {
+            throw new IOException("No CSRF token in page");
+        }
+        return m.group(1);
+    }
+
+    static String fieldValue(String html, String name) throws IOException {
+        Matcher m = Pattern.compile("name=\"" + Pattern.quote(name) + "\"\\s+value=\"([^\"]*)\"").matcher(html);
+        if (!m.find()) {
+            throw new IOException("No field " + name + " in page");
+        }
+        return m.group(1);
+    }
+}
@@ -0,0 +1,60 @@
+package edu.brajovic.products.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-step latency samples and error counts for one load run.
+ */
+final class LatencyRecorder {
+
+    record StepResult(String step, int count, int errors, double perSecond,
+                      double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    private final Map<String, Samples> steps = new ConcurrentHashMap<>();
+
+    void record(String step, long nanos, boolean ok) {
+        steps.computeIfAbsent(step, s -> new Samples()).add(nanos, ok);
+    }
+
+    Map<String, StepResult> results(double seconds) {
+        Map<String, StepResult> results = new TreeMap<>();
+        steps.forEach((step, samples) -> results.put(step, samples.result(step, seconds)));
+        return results;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long value, boolean ok) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized StepResult result(String step, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new StepResult(step, count, errors, count / seconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(sorted.length * p / 100) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package edu.brajovic.products.load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Stored reference results: per step p95 latency and throughput, plus the
+ * volumes and concurrency they were measured with. A run regresses when a
+ * p95 is more than {@code tolerance} and more than {@code slackMillis} above
+ * its baseline (the slack keeps fast steps from tripping on jitter), or a
+ * throughput is more than {@code tolerance} below it. Steps with fewer than
+ * {@code minSamples} requests in a run are too noisy to gate on and are left
+ * out of the baseline; the test fails such a run before comparing.
+ */
+final class LoadBaseline {
+
+    private LoadBaseline() {
+    }
+
+    static Properties of(Map<String, String> settings, Map<String, LatencyRecorder.StepResult> results,
+                         double journeysPerSecond, int minSamples) {
+        Properties p = new Properties();
+        settings.forEach(p::setProperty);
+        results.forEach((step, r) -> {
+            if (r.count() < minSamples) {
+                return;
+            }
+            p.setProperty(step + ".p95-ms", String.format(Locale.ROOT, "%.1f", r.p95Millis()));
+            p.setProperty(step + ".throughput-per-s", String.format(Locale.ROOT, "%.2f", r.perSecond()));
+        });
+        p.setProperty("journeys.throughput-per-s", String.format(Locale.ROOT, "%.2f", journeysPerSecond));
+        return p;
+    }
+
+    static Properties read(Path file) throws IOException {
+        Properties p = new Properties();
+        if (Files.exists(file)) {
+            try (Reader in = Files.newBufferedReader(file)) {
+                p.load(in);
+            }
+        }
+        return p;
+    }
+
+    static void write(Properties p, Path file, String comment) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        // Sorted, so baseline diffs stay readable.
+        Map<String, String> sorted = new TreeMap<>();
+        p.stringPropertyNames().forEach(k -> sorted.put(k, p.getProperty(k)));
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write("# " + comment + "\n");
+            for (Map.Entry<String, String> e : sorted.entrySet()) {
+                out.write(e.getKey() + "=" + e.getValue() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Every regression of {@code actual} against {@code baseline}, empty if
+     * none. A step in {@code steps} that the baseline does not cover counts
+     * as a problem too, so no step goes ungated.
+     */
+    static List<String> regressions(Properties baseline, Properties actual, Map<String, String> settings,
+                                    List<String> steps, double tolerance, double slackMillis) {
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            String recorded = baseline.getProperty(setting.getKey());
+            if (recorded != null && !recorded.equals(setting.getValue())) {
+                problems.add("Baseline was recorded with " + setting.getKey() + "=" + recorded
+                        + ", this run used " + setting.getValue());
+            }
+        }
+        if (!problems.isEmpty()) {
+            return problems;
+        }
+        for (String step : steps) {
+            if (baseline.getProperty(step + ".p95-ms") == null) {
+                problems.add("No baseline for step " + step + "; re-record with -Dload.update-baseline=true");
+            }
+        }
+        for (String key : new TreeMap<>(baseline).keySet().stream().map(Object::toString).toList()) {
+            if (settings.containsKey(key)) {
+                continue;
+            }
+            double expected = Double.parseDouble(baseline.getProperty(key));
+            String value = actual.getProperty(key);
+            if (value == null) {
+                // A step this run's mix does not take.
+                continue;
+            }
+            double measured = Double.parseDouble(value);
+            if (key.endsWith(".p95-ms") && measured > expected * (1 + tolerance)
+                    && measured > expected + slackMillis) {
+                problems.add(String.format(Locale.ROOT, "%s: %.1f ms, baseline %.1f ms", key, measured, expected));
+            } else if (key.endsWith(".throughput-per-s") && measured < expected * (1 - tolerance)) {
+                problems.add(String.format(Locale.ROOT, "%s: %.2f/s, baseline %.2f/s", key, measured, expected));
+            }
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.brajovic.products.load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+/**
+ * Seeds ORDERS and USERS with synthetic rows over plain JDBC batches, one
+ * commit per batch. Rows are numbered (LOAD-00000001, load-user-1, ...) and
+ * generation resumes after the highest existing number, so re-running
+ * against the same database only tops it up. On MySQL add
+ * rewriteBatchedStatements=true to the URL so each batch is one statement.
+ */
+final class LoadDataGenerator {
+
+    static final String ORDER_PREFIX = "LOAD-";
+    static final String USER_PREFIX = "load-user-";
+
+    private static final int PRODUCTS = 50;
+
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final Random random = new Random(42);
+
+    LoadDataGenerator(DataSource dataSource, int batchSize) {
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Brings the number of generated orders up to {@code target}; returns how many were added.
+     */
+    int seedOrders(int target) throws SQLException {
+        int existing = count("SELECT COUNT(*) FROM ORDERS WHERE ORDER_NUMBER LIKE '" + ORDER_PREFIX + "%'");
+        if (existing >= target) {
+            return 0;
+        }
+        try (Connection con = dataSource.getConnection()) {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO ORDERS (ORDER_NUMBER, PRODUCT_NAME, PRICE, QTY) VALUES (?, ?, ?, ?)")) {
+                for (int n = existing + 1; n <= target; n++) {
+                    ps.setString(1, String.format("%s%08d", ORDER_PREFIX, n));
+                    ps.setString(2, "Load product " + random.nextInt(PRODUCTS));
+                    ps.setDouble(3, (100 + random.nextInt(50_000)) / 100.0);
+                    ps.setInt(4, 1 + random.nextInt(50));
+                    ps.addBatch();
+                    if (n % batchSize == 0 || n == target) {
+                        ps.executeBatch();
+                        con.commit();
+                    }
+                }
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        }
+        return target - existing;
+    }
+
+    /**
+     * Brings the number of generated users up to {@code target}. They all share
+     * one pre-computed password hash, so seeding costs no BCrypt rounds.
+     */
+    int seedUsers(int target, String passwordHash) throws SQLException {
+        int existing = count("SELECT COUNT(*) FROM USERS WHERE USERNAME LIKE '" + USER_PREFIX + "%'");
+        if (existing >= target) {
+            return 0;
+        }
+        try (Connection con = dataSource.getConnection()) {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO USERS (USERNAME, PASSWORD, ROLE, ENABLED) VALUES (?, ?, 'USER', TRUE)")) {
+                for (int n = existing + 1; n <= target; n++) {
+                    ps.setString(1, USER_PREFIX + n);
+                    ps.setString(2, passwordHash);
+                    ps.addBatch();
+                    if (n % batchSize == 0 || n == target) {
+                        ps.executeBatch();
+                        con.commit();
+                    }
+                }
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        }
+        return target - existing;
+    }
+
+    /**
+     * Up to {@code limit} ids of generated orders, for the view and edit steps.
+     */
+    int[] sampleOrderIds(int limit) throws SQLException {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT ID FROM ORDERS WHERE ORDER_NUMBER LIKE '"
+                     + ORDER_PREFIX + "%' AND DELETED = FALSE ORDER BY ID LIMIT ?")) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                int[] ids = new int[limit];
+                int n = 0;
+                while (rs.next()) {
+                    ids[n++] = rs.getInt(1);
+                }
+                return Arrays.copyOf(ids, n);
+            }
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
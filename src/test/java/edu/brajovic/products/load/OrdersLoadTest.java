@@ -0,0 +1,269 @@
+package edu.brajovic.products.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Seeds the database, then runs scripted journeys over real HTTP at a fixed
+ * concurrency and checks the results against the stored baseline.
+ *
+ * A user journey is login -> /orders -> view one order -> edit and save it.
+ * Every load.register-every-th journey registers a new account instead and
+ * every load.admin-every-th logs in as admin and opens /admin/users.
+ *
+ * Only runs with -Pload-test. Settings are system properties, e.g.
+ * mvn -Pload-test test -Dload.orders=100000 -Dload.concurrency=32
+ *
+ * /orders renders every row, so the list step dominates at large volumes.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrdersLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrdersLoadTest.class);
+
+    private static final String PASSWORD = "loadpass";
+    private static final String ADMIN = "load-admin";
+
+    private static final Path BASELINE = Path.of(System.getProperty("load.baseline",
+            "src/test/resources/loadtest/baseline.properties"));
+    private static final Path REPORT_DIR = Path.of("target", "load-test");
+
+    private final int orders = Integer.getInteger("load.orders", 2_000);
+    private final int users = Integer.getInteger("load.users", 200);
+    private final int concurrency = Integer.getInteger("load.concurrency", 4);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-s", 10);
+    private final int durationSeconds = Integer.getInteger("load.duration-s", 30);
+    private final int registerEvery = Integer.getInteger("load.register-every", 5);
+    private final int adminEvery = Integer.getInteger("load.admin-every", 4);
+    private final int minSamples = Integer.getInteger("load.min-samples", 10);
+    private final int batchSize = Integer.getInteger("load.batch-size", 1_000);
+    private final long seed = Long.getLong("load.seed", 42);
+    private final double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.5"));
+    private final double slackMillis = Double.parseDouble(System.getProperty("load.slack-ms", "50"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private final boolean updateBaseline = Boolean.getBoolean("load.update-baseline");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final AtomicLong journeys = new AtomicLong();
+    private final AtomicLong registrations = new AtomicLong();
+
+    @Test
+    void journeysStayWithinBaseline() throws Exception {
+        int[] orderIds = seed();
+        String database;
+        try (var con = dataSource.getConnection()) {
+            database = con.getMetaData().getDatabaseProductName();
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            int worker = w;
+            workers.add(pool.submit(() -> runJourneys(worker, orderIds, recorder, warmupEnd, end)));
+        }
+        for (Future<?> f : workers) {
+            f.get();
+        }
+        pool.shutdown();
+
+        Map<String, LatencyRecorder.StepResult> results = recorder.results(durationSeconds);
+        double journeysPerSecond = journeys.get() / (double) durationSeconds;
+        Map<String, String> settings = settings(database);
+        String report = report(settings, results, journeysPerSecond);
+        log.info("Load test results\n{}", report);
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("report.txt"), report);
+
+        for (LatencyRecorder.StepResult r : results.values()) {
+            assertTrue(r.errors() <= r.count() * maxErrorRate,
+                    r.step() + ": " + r.errors() + " errors in " + r.count() + " requests");
+        }
+        List<String> steps = steps();
+        List<String> tooFew = new ArrayList<>();
+        for (String step : steps) {
+            int count = results.containsKey(step) ? results.get(step).count() : 0;
+            if (count < minSamples) {
+                tooFew.add(step + ": " + count);
+            }
+        }
+        if (!tooFew.isEmpty()) {
+            fail("Steps with fewer than load.min-samples=" + minSamples + " requests cannot be gated; raise "
+                    + "load.duration-s or lower load.register-every / load.admin-every:\n  "
+                    + String.join("\n  ", tooFew));
+        }
+
+        Properties actual = LoadBaseline.of(settings, results, journeysPerSecond, minSamples);
+        LoadBaseline.write(actual, REPORT_DIR.resolve("baseline.properties"), "Candidate baseline from the last run");
+        if (updateBaseline) {
+            LoadBaseline.write(actual, BASELINE, "Load test baseline, recorded with -Dload.update-baseline=true");
+            log.info("Baseline written to {}", BASELINE.toAbsolutePath());
+            return;
+        }
+        Properties baseline = LoadBaseline.read(BASELINE);
+        if (baseline.isEmpty()) {
+            fail("No baseline at " + BASELINE.toAbsolutePath() + "; record one on the machine that runs the gate "
+                    + "with -Dload.update-baseline=true (see docs/load-test.md)");
+        }
+        List<String> regressions = LoadBaseline.regressions(baseline, actual, settings, steps, tolerance,
+                slackMillis);
+        if (!regressions.isEmpty()) {
+            fail("Load test regressed past the baseline (tolerance " + (int) (tolerance * 100) + "%):\n  "
+                    + String.join("\n  ", regressions));
+        }
+    }
+
+    private int[] seed() throws Exception {
+        LoadDataGenerator generator = new LoadDataGenerator(dataSource, batchSize);
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        long start = System.nanoTime();
+        int addedOrders = generator.seedOrders(orders);
+        int addedUsers = generator.seedUsers(users, hash);
+        try (var con = dataSource.getConnection();
+             var ps = con.prepareStatement("INSERT INTO USERS (USERNAME, PASSWORD, ROLE, ENABLED) "
+                     + "SELECT ?, ?, 'ROLE_ADMIN', TRUE FROM USERS WHERE NOT EXISTS "
+                     + "(SELECT 1 FROM USERS WHERE USERNAME = ?) LIMIT 1")) {
+            ps.setString(1, ADMIN);
+            ps.setString(2, hash);
+            ps.setString(3, ADMIN);
+            ps.executeUpdate();
+        }
+        log.info("Seeded {} orders and {} users in {} ms", addedOrders, addedUsers,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return generator.sampleOrderIds(10_000);
+    }
+
+    private void runJourneys(int worker, int[] orderIds, LatencyRecorder recorder, long warmupEnd, long end) {
+        JourneyClient client = new JourneyClient("http://localhost:" + port, recorder);
+        // Seeded per worker, so every run picks the same users, orders and quantities.
+        Random random = new Random(seed + worker);
+        for (long n = worker; System.nanoTime() < end; n += concurrency) {
+            boolean measured = System.nanoTime() >= warmupEnd;
+            client.setRecording(measured);
+            client.newBrowserSession();
+            try {
+                if (registerEvery > 0 && n % registerEvery == registerEvery - 1) {
+                    register(client);
+                } else if (adminEvery > 0 && n % adminEvery == adminEvery - 1) {
+                    login(client, ADMIN);
+                    client.get("admin-users", "/admin/users");
+                } else {
+                    login(client, LoadDataGenerator.USER_PREFIX + (1 + random.nextInt(users)));
+                    client.get("list", "/orders");
+                    int id = orderIds[random.nextInt(orderIds.length)];
+                    client.get("view", "/orders/showOrders/" + id);
+                    edit(client, id, random.nextInt(1, 51));
+                }
+                if (measured) {
+                    journeys.incrementAndGet();
+                }
+            } catch (IOException ex) {
+                // Already counted as an error for its step; start the next journey.
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void login(JourneyClient client, String username) throws IOException, InterruptedException {
+        String page = client.get("login-page", "/login").body();
+        client.post("login", "/login", page, Map.of("username", username, "password", PASSWORD));
+    }
+
+    private static void edit(JourneyClient client, int id, int quantity) throws IOException, InterruptedException {
+        String form = client.get("edit-page", "/orders/editOrder/" + id).body();
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", String.valueOf(id));
+        fields.put("order_number", JourneyClient.fieldValue(form, "order_number"));
+        fields.put("product_name", JourneyClient.fieldValue(form, "product_name"));
+        fields.put("price", JourneyClient.fieldValue(form, "price"));
+        fields.put("quantity", String.valueOf(quantity));
+        client.post("edit", "/orders/processEditOrder", form, fields);
+    }
+
+    private void register(JourneyClient client) throws IOException, InterruptedException {
+        String username = "load-reg-" + ProcessHandle.current().pid() + "-" + registrations.incrementAndGet();
+        String page = client.get("register-page", "/register").body();
+        client.post("register", "/register", page,
+                Map.of("username", username, "password", PASSWORD, "confirmPassword", PASSWORD));
+    }
+
+    // Every step the configured journey mix takes.
+    private List<String> steps() {
+        List<String> steps = new ArrayList<>(List.of("login-page", "login", "list", "view", "edit-page", "edit"));
+        if (registerEvery > 0) {
+            steps.addAll(List.of("register-page", "register"));
+        }
+        if (adminEvery > 0) {
+            steps.add("admin-users");
+        }
+        return steps;
+    }
+
+    private Map<String, String> settings(String database) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        // H2 and MySQL numbers are not comparable, so the database is part of the settings.
+        settings.put("settings.database", database);
+        settings.put("settings.orders", String.valueOf(orders));
+        settings.put("settings.users", String.valueOf(users));
+        settings.put("settings.concurrency", String.valueOf(concurrency));
+        settings.put("settings.duration-s", String.valueOf(durationSeconds));
+        return settings;
+    }
+
+    private String report(Map<String, String> settings, Map<String, LatencyRecorder.StepResult> results,
+                          double journeysPerSecond) {
+        StringBuilder out = new StringBuilder();
+        settings.forEach((k, v) -> out.append(k).append('=').append(v).append('\n'));
+        out.append(String.format(Locale.ROOT, "%-14s %8s %7s %9s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (LatencyRecorder.StepResult r : results.values()) {
+            out.append(String.format(Locale.ROOT, "%-14s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    r.step(), r.count(), r.errors(), r.perSecond(),
+                    r.p50Millis(), r.p95Millis(), r.p99Millis(), r.maxMillis()));
+        }
+        out.append(String.format(Locale.ROOT, "journeys/s %.2f%n", journeysPerSecond));
+        return out.toString();
+    }
+}